@@ -0,0 +1,28 @@
+package org.example.resai.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler always on, so allocation rates
+ * (gc.alloc.rate.norm, bytes/op) are reported next to throughput, and writes
+ * a JSON result file for comparing runs.
+ *
+ * ./mvnw -Pjmh test-compile exec:exec                      (all benchmarks)
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="Jwt -f 1" (any JMH CLI options)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build()).run();
+    }
+}
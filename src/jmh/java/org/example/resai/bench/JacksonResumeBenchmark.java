@@ -0,0 +1,97 @@
+package org.example.resai.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.resai.dto.ResumeRes;
+import org.example.resai.model.resume.ResumeDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of Resume.data documents, as done for every resume
+ * response and jsonb read/write.
+ *
+ * DEFAULT is a plain mapper, SHARED adds the Blackbird module as the application's
+ * mapper does; both go through prebuilt ObjectReader/ObjectWriter like ResumeJson.
+ * serializeResponse writes a whole ResumeRes body, i.e. serialization CPU per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonResumeBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public ResumeFixtures fixture;
+
+    @Param({"DEFAULT", "SHARED"})
+    public String mapper;
+
+    private ObjectReader dataReader;
+    private ObjectWriter dataWriter;
+    private ObjectWriter responseWriter;
+    private ResumeRes response;
+    private ResumeDocument data;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = "SHARED".equals(mapper)
+                ? JsonMapper.builder().addModule(new JavaTimeModule()).addModule(new BlackbirdModule()).build()
+                : JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        dataReader = objectMapper.readerFor(ResumeDocument.class);
+        dataWriter = objectMapper.writerFor(ResumeDocument.class);
+        responseWriter = objectMapper.writerFor(ResumeRes.class);
+
+        data = fixture.document();
+        json = dataWriter.writeValueAsBytes(data);
+        response = response(data);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return dataWriter.writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public ResumeDocument deserialize() throws Exception {
+        return dataReader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    static ResumeRes response(ResumeDocument data) {
+        ResumeRes response = new ResumeRes();
+        response.setId(42L);
+        response.setTitle("Senior Backend Engineer");
+        response.setData(data);
+        response.setAiMetadata(Map.of("lastTailoredAt", "2025-01-01T10:00:00", "tailorCount", 3));
+        response.setVersion(7);
+        response.setLanguage("en");
+        response.setCreatedAt(LocalDateTime.of(2024, 6, 1, 9, 30));
+        response.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.resai.bench;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and compression CPU for a GET /api/resumes/{id} body, per
+ * Content-Encoding the server can negotiate: none, gzip (Tomcat's default level)
+ * and brotli at the quality BrotliResponseFilter uses. The wireBytes counter is the
+ * size of one compressed response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public ResumeFixtures fixture;
+
+    @Param({"identity", "gzip", "br"})
+    public String encoding;
+
+    @Param({"4"})
+    public int brotliQuality;
+
+    private byte[] body;
+    private Encoder.Parameters brotli;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        Brotli4jLoader.ensureAvailability();
+        brotli = new Encoder.Parameters().setQuality(brotliQuality).setMode(Encoder.Mode.TEXT);
+        body = JsonMapper.builder().addModule(new JavaTimeModule()).build()
+                .writeValueAsBytes(Map.of("resume", JacksonResumeBenchmark.response(fixture.document())));
+    }
+
+    @Benchmark
+    public byte[] compress(WireSize size) throws IOException {
+        byte[] out = switch (encoding) {
+            case "gzip" -> gzip(body);
+            case "br" -> Encoder.compress(body, brotli);
+            default -> body;
+        };
+        size.wireBytes = out.length;
+        return out;
+    }
+
+    private static byte[] gzip(byte[] input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(input.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(input);
+        }
+        return bytes.toByteArray();
+    }
+}
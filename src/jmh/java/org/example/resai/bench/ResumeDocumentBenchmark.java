@@ -0,0 +1,77 @@
+package org.example.resai.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.resai.model.resume.ResumeDocument;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed {@link ResumeDocument} against the Map&lt;String, Object&gt; tree Resume.data used
+ * to be: parse time per document (allocation per parse comes from the GC profiler as
+ * gc.alloc.rate.norm) and retained heap of the parsed result (the retainedBytes counter,
+ * measured with JOL).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeDocumentBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public ResumeFixtures fixture;
+
+    @Param({"MAP", "TYPED"})
+    public String representation;
+
+    private ObjectReader reader;
+    private byte[] json;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void measure(ResumeDocumentBenchmark benchmark) throws Exception {
+            retainedBytes = GraphLayout.parseInstance(benchmark.read()).totalSize();
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        reader = "TYPED".equals(representation)
+                ? objectMapper.readerFor(ResumeDocument.class)
+                : objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+        json = objectMapper.writeValueAsBytes(fixture.build());
+    }
+
+    // Footprint is only taken as a parameter so its counter is reported with this benchmark
+    @Benchmark
+    public Object parse(Footprint footprint) throws Exception {
+        return read();
+    }
+
+    private Object read() throws Exception {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.resai.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.resai.model.resume.ResumeDocument;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Resume documents shaped like the ones the frontend stores in Resume.data.
+ * SMALL is a student resume, MEDIUM a typical mid-career one, HUGE the kind of
+ * academic / consultant CV that stresses tailoring (long bullet lists, many projects).
+ * Generation is seeded so every run benchmarks the same documents.
+ */
+public enum ResumeFixtures {
+
+    SMALL(1, 3, 2, 1, 8),
+    MEDIUM(4, 5, 4, 2, 20),
+    HUGE(15, 8, 12, 4, 60);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] VERBS = {
+            "Developed", "Led", "Implemented", "Designed", "Optimized", "Migrated", "Automated", "Reduced"
+    };
+    private static final String[] TECH = {
+            "Spring Boot", "PostgreSQL", "React", "Kubernetes", "Kafka", "TypeScript", "AWS", "Redis", "Docker"
+    };
+
+    private final int experiences;
+    private final int bulletsPerEntry;
+    private final int projects;
+    private final int educations;
+    private final int skills;
+
+    ResumeFixtures(int experiences, int bulletsPerEntry, int projects, int educations, int skills) {
+        this.experiences = experiences;
+        this.bulletsPerEntry = bulletsPerEntry;
+        this.projects = projects;
+        this.educations = educations;
+        this.skills = skills;
+    }
+
+    public Map<String, Object> build() {
+        Random random = new Random(42 + ordinal());
+        Map<String, Object> data = new HashMap<>();
+
+        Map<String, Object> personalInfo = new HashMap<>();
+        personalInfo.put("fullName", "Jordan Example");
+        personalInfo.put("email", "jordan@example.com");
+        personalInfo.put("phone", "+1 514 555 0100");
+        personalInfo.put("location", "Montréal, QC");
+        personalInfo.put("linkedin", "https://linkedin.com/in/jordan-example");
+        personalInfo.put("github", "https://github.com/jordan-example");
+        data.put("personalInfo", personalInfo);
+
+        data.put("summary", sentence(random, 40));
+
+        List<Map<String, Object>> experience = new ArrayList<>();
+        for (int i = 0; i < experiences; i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("company", "Company " + i);
+            entry.put("role", "Software Engineer " + (i % 3 == 0 ? "II" : "I"));
+            entry.put("location", "Remote");
+            entry.put("startDate", (2010 + i) + "-01");
+            entry.put("endDate", i == 0 ? "Present" : (2011 + i) + "-06");
+            entry.put("bullets", bullets(random));
+            experience.add(entry);
+        }
+        data.put("experience", experience);
+
+        List<Map<String, Object>> projectList = new ArrayList<>();
+        for (int i = 0; i < projects; i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("title", "Project " + i);
+            entry.put("technologies", List.of(TECH[i % TECH.length], TECH[(i + 3) % TECH.length]));
+            entry.put("link", "https://github.com/jordan-example/project-" + i);
+            entry.put("bullets", bullets(random));
+            projectList.add(entry);
+        }
+        data.put("projects", projectList);
+
+        List<Map<String, Object>> education = new ArrayList<>();
+        for (int i = 0; i < educations; i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("school", "University " + i);
+            entry.put("degree", i == 0 ? "B.Sc. Computer Science" : "M.Sc. Software Engineering");
+            entry.put("startDate", (2005 + i * 4) + "-09");
+            entry.put("endDate", (2009 + i * 4) + "-05");
+            education.add(entry);
+        }
+        data.put("education", education);
+
+        List<String> skillList = new ArrayList<>();
+        for (int i = 0; i < skills; i++) {
+            skillList.add(TECH[i % TECH.length] + (i >= TECH.length ? " " + i : ""));
+        }
+        data.put("skills", skillList);
+
+        return data;
+    }
+
+    public ResumeDocument document() {
+        return MAPPER.convertValue(build(), ResumeDocument.class);
+    }
+
+    public static String jobDescription() {
+        return sentence(new Random(7), 350);
+    }
+
+    private List<String> bullets(Random random) {
+        List<String> bullets = new ArrayList<>();
+        for (int i = 0; i < bulletsPerEntry; i++) {
+            bullets.add(VERBS[random.nextInt(VERBS.length)] + " " + sentence(random, 18));
+        }
+        return bullets;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(i % 7 == 3 ? TECH[random.nextInt(TECH.length)] : "word" + random.nextInt(500));
+        }
+        return sb.append('.').toString();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.resai.mapper;
+
+import org.example.resai.bench.ResumeFixtures;
+import org.example.resai.dto.ResumeRes;
+import org.example.resai.model.Resume;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResumeMapperBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public ResumeFixtures fixture;
+
+    private final ResumeMapper resumeMapper = new ResumeMapper();
+    private Resume resume;
+
+    @Setup
+    public void setUp() {
+        resume = new Resume();
+        resume.setId(1L);
+        resume.setTitle("Benchmark resume");
+        resume.setData(fixture.document());
+        resume.setAiMetadata(new HashMap<>());
+        resume.setCreatedAt(LocalDateTime.now());
+        resume.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public ResumeRes toResponseDTO() {
+        return resumeMapper.toResponseDTO(resume);
+    }
+}
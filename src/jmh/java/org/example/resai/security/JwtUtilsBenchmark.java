@@ -0,0 +1,45 @@
+package org.example.resai.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and parsing, which runs on every authenticated request
+ * (twice on controllers that re-parse the Authorization header).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private final JwtUtils jwtUtils = new JwtUtils();
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = jwtUtils.generateToken("jordan@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken("jordan@example.com");
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtils.extractEmail(token);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.resai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.resai.bench.ResumeFixtures;
+import org.example.resai.concurrency.Bulkhead;
+import org.example.resai.mapper.ResumeJson;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.tracing.RequestTracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-bound parts of tailoring around the OpenAI call: building the
+ * prompt (serializing the whole resume into it) and re-checking the
+ * model's output against the original structure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AiServiceBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    public ResumeFixtures fixture;
+
+    @Param({"en", "fr"})
+    public String language;
+
+    private AiService aiService;
+    private ResumeDocument resumeData;
+    private ResumeDocument tailoredData;
+    private String jobDescription;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        aiService = new AiService(meterRegistry, new RequestTracer(ObservationRegistry.NOOP),
+                new Bulkhead("ai", 1, 0, Duration.ZERO, meterRegistry),
+                new ResumeJson(JsonMapper.builder().addModule(new BlackbirdModule()).build()));
+        resumeData = fixture.document();
+        jobDescription = ResumeFixtures.jobDescription();
+
+        // Model output with one extra and one missing top-level key, as seen in practice
+        Map<String, Object> tailored = fixture.build();
+        tailored.put("hobbies", "added by the model");
+        tailored.remove("education");
+        tailoredData = new ObjectMapper().convertValue(tailored, ResumeDocument.class);
+    }
+
+    @Benchmark
+    public String prepareResumeTailoringMessage() {
+        return aiService.prepareResumeTailoringMessage(resumeData, jobDescription, language);
+    }
+
+    @Benchmark
+    public ResumeDocument enforceResumeStructure() {
+        return aiService.enforceResumeStructure(resumeData, tailoredData);
+    }
+}
@@ -0,0 +1,358 @@
+package org.example.resai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for the OpenAI chat completions API, so the backend can be
+ * load-tested without spending tokens. Start the backend with
+ * OPENAI_BASE_URL=http://localhost:8089/v1 and any openai.api.key.
+ *
+ * ./mvnw -Ploadtest test-compile exec:java [-Dfake.latency=lognormal:1500,0.6 -Dfake.rate-limit-ratio=0.02 ...]
+ *
+ * Options (system properties):
+ *   fake.port               listen port (8089)
+ *   fake.latency            fixed:MS | uniform:MIN-MAX | lognormal:MEDIAN,SIGMA   (lognormal:1200,0.5)
+ *   fake.rate-limit-ratio   share of requests answered with a 429 (0)
+ *   fake.malformed-ratio    share of requests answered with truncated JSON (0)
+ *   fake.stream-chunk-ms    delay between SSE chunks when the request sets stream=true (25)
+ *   fake.fixtures           directory of recorded interactions to replay (src/loadtest/fixtures)
+ *
+ * A fixture is a JSON file {"match": "...", "latencyMs": 900, "status": 200, "response": {...}}.
+ * The first fixture (by file name) whose "match" occurs in the request messages is
+ * replayed verbatim; otherwise a response is synthesized: tailoring requests get the
+ * submitted resume echoed back, text requests get canned copy. Token usage is
+ * estimated at ~4 characters per token. GET /stats returns request counts by outcome.
+ */
+public class FakeOpenAiServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] RESUME_MARKERS = {"CURRENT RESUME (JSON):", "CV ACTUEL (JSON):"};
+
+    private final LatencyModel latency;
+    private final double rateLimitRatio;
+    private final double malformedRatio;
+    private final long streamChunkMs;
+    private final List<Fixture> fixtures;
+    private final Map<String, LongAdder> stats = new ConcurrentHashMap<>();
+
+    FakeOpenAiServer(LatencyModel latency, double rateLimitRatio, double malformedRatio,
+                     long streamChunkMs, List<Fixture> fixtures) {
+        this.latency = latency;
+        this.rateLimitRatio = rateLimitRatio;
+        this.malformedRatio = malformedRatio;
+        this.streamChunkMs = streamChunkMs;
+        this.fixtures = fixtures;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("fake.port", 8089);
+        LatencyModel latency = LatencyModel.parse(System.getProperty("fake.latency", "lognormal:1200,0.5"));
+        double rateLimitRatio = Double.parseDouble(System.getProperty("fake.rate-limit-ratio", "0"));
+        double malformedRatio = Double.parseDouble(System.getProperty("fake.malformed-ratio", "0"));
+        long streamChunkMs = Long.getLong("fake.stream-chunk-ms", 25);
+        List<Fixture> fixtures = Fixture.loadAll(Path.of(System.getProperty("fake.fixtures", "src/loadtest/fixtures")));
+
+        FakeOpenAiServer fake = new FakeOpenAiServer(latency, rateLimitRatio, malformedRatio, streamChunkMs, fixtures);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/v1/chat/completions", fake::handleCompletion);
+        server.createContext("/chat/completions", fake::handleCompletion);
+        server.createContext("/stats", fake::handleStats);
+        // Requests mostly sleep, so one virtual thread each keeps concurrency unbounded
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        System.out.printf("Fake OpenAI listening on :%d (latency %s, 429 %.1f%%, malformed %.1f%%, %d fixtures)%n",
+                port, latency, rateLimitRatio * 100, malformedRatio * 100, fixtures.size());
+    }
+
+    private void handleCompletion(HttpExchange exchange) {
+        try (exchange) {
+            respond(exchange);
+        } catch (Exception e) {
+            count("server_error");
+            e.printStackTrace();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "application/json", error("Method not allowed", "invalid_request_error", null));
+            return;
+        }
+
+        JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+        String prompt = promptText(request);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Fixture fixture = fixtures.stream().filter(f -> prompt.contains(f.match())).findFirst().orElse(null);
+        if (fixture != null) {
+            sleep(fixture.latencyMs() >= 0 ? fixture.latencyMs() : latency.sample(random));
+            count("fixture:" + fixture.name());
+            send(exchange, fixture.status(), "application/json", MAPPER.writeValueAsString(fixture.response()));
+            return;
+        }
+
+        sleep(latency.sample(random));
+
+        if (random.nextDouble() < rateLimitRatio) {
+            count("rate_limited");
+            exchange.getResponseHeaders().add("retry-after", "1");
+            send(exchange, 429, "application/json",
+                    error("Rate limit reached for gpt-4o-mini (fake)", "requests", "rate_limit_exceeded"));
+            return;
+        }
+
+        String content = synthesizeContent(request, prompt);
+        int promptTokens = tokens(prompt);
+        int completionTokens = tokens(content);
+
+        if (request.path("stream").asBoolean(false)) {
+            count("stream");
+            stream(exchange, request, content, promptTokens, completionTokens);
+            return;
+        }
+
+        String body = MAPPER.writeValueAsString(completion(request, content, promptTokens, completionTokens));
+        if (random.nextDouble() < malformedRatio) {
+            count("malformed");
+            send(exchange, 200, "application/json", body.substring(0, body.length() / 2));
+            return;
+        }
+
+        count("ok");
+        send(exchange, 200, "application/json", body);
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ObjectNode body = MAPPER.createObjectNode();
+            stats.forEach((outcome, n) -> body.put(outcome, n.sum()));
+            send(exchange, 200, "application/json", MAPPER.writeValueAsString(body));
+        }
+    }
+
+    private String synthesizeContent(JsonNode request, String prompt) throws IOException {
+        boolean json = "json_object".equals(request.path("response_format").path("type").asText());
+        if (json) {
+            return echoResume(prompt);
+        }
+
+        String system = request.path("messages").path(0).path("content").asText("").toLowerCase();
+        if (system.contains("cover letter") || system.contains("lettre de motivation")) {
+            return String.join("\n\n",
+                    "I am excited to apply for this position. My background in backend development and "
+                            + "cloud infrastructure maps closely to the requirements you describe.",
+                    "In my most recent role I led the migration of a monolith to Spring Boot services, cut "
+                            + "p95 latency by 40% and mentored three junior engineers along the way.",
+                    "I would welcome the chance to discuss how I can contribute to your team.");
+        }
+        if (system.contains("bullet") || system.contains("points")) {
+            return String.join("\n",
+                    "• Developed RESTful APIs using Spring Boot, reducing response time by 40%",
+                    "• Collaborated with a cross-functional team of 5 to deliver features on schedule",
+                    "• Implemented automated testing, increasing code coverage from 60% to 85%");
+        }
+        return "Results-driven software engineer with 5+ years building scalable backend systems in Java "
+                + "and Spring Boot. Experienced in cloud deployments, API design and performance tuning.";
+    }
+
+    // Tailoring: hand back the submitted resume (same structure, as the real model is told to)
+    private static String echoResume(String prompt) throws IOException {
+        for (String marker : RESUME_MARKERS) {
+            int start = prompt.indexOf(marker);
+            if (start >= 0) {
+                // readTree stops after the first complete value and ignores the job description after it
+                JsonNode resume = MAPPER.readTree(prompt.substring(start + marker.length()).trim());
+                if (resume instanceof ObjectNode object && object.path("summary").isTextual()) {
+                    object.put("summary", object.path("summary").asText() + " (tailored)");
+                }
+                return MAPPER.writeValueAsString(resume);
+            }
+        }
+        return "{}";
+    }
+
+    private void stream(HttpExchange exchange, JsonNode request, String content,
+                        int promptTokens, int completionTokens) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        String id = "chatcmpl-fake-" + UUID.randomUUID();
+        OutputStream out = exchange.getResponseBody();
+
+        int chunkSize = 16;
+        for (int i = 0; i < content.length(); i += chunkSize) {
+            ObjectNode chunk = chunk(request, id);
+            ((ObjectNode) chunk.withArray("choices").get(0)).putObject("delta")
+                    .put("content", content.substring(i, Math.min(i + chunkSize, content.length())));
+            writeEvent(out, MAPPER.writeValueAsString(chunk));
+            sleep(streamChunkMs);
+        }
+
+        ObjectNode last = chunk(request, id);
+        ((ObjectNode) last.withArray("choices").get(0)).put("finish_reason", "stop").putObject("delta");
+        if (request.path("stream_options").path("include_usage").asBoolean(false)) {
+            last.set("usage", usage(promptTokens, completionTokens));
+        }
+        writeEvent(out, MAPPER.writeValueAsString(last));
+        writeEvent(out, "[DONE]");
+    }
+
+    private static ObjectNode chunk(JsonNode request, String id) {
+        ObjectNode chunk = MAPPER.createObjectNode();
+        chunk.put("id", id);
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("created", System.currentTimeMillis() / 1000);
+        chunk.put("model", request.path("model").asText("gpt-4o-mini"));
+        chunk.putArray("choices").addObject().put("index", 0);
+        return chunk;
+    }
+
+    private static ObjectNode completion(JsonNode request, String content, int promptTokens, int completionTokens) {
+        ObjectNode body = MAPPER.createObjectNode();
+        body.put("id", "chatcmpl-fake-" + UUID.randomUUID());
+        body.put("object", "chat.completion");
+        body.put("created", System.currentTimeMillis() / 1000);
+        body.put("model", request.path("model").asText("gpt-4o-mini"));
+        ArrayNode choices = body.putArray("choices");
+        ObjectNode choice = choices.addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        body.set("usage", usage(promptTokens, completionTokens));
+        return body;
+    }
+
+    private static ObjectNode usage(int promptTokens, int completionTokens) {
+        ObjectNode usage = MAPPER.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    private static String error(String message, String type, String code) {
+        ObjectNode body = MAPPER.createObjectNode();
+        ObjectNode error = body.putObject("error");
+        error.put("message", message);
+        error.put("type", type);
+        error.put("code", code);
+        return body.toString();
+    }
+
+    private static String promptText(JsonNode request) {
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode message : request.path("messages")) {
+            sb.append(message.path("content").asText("")).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static int tokens(String text) {
+        return Math.max(1, text.length() / 4);
+    }
+
+    private void count(String outcome) {
+        stats.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Response latency distribution, e.g. "fixed:800", "uniform:300-3000", "lognormal:1200,0.5".
+     * Lognormal (median, sigma) matches the long right tail of real completion latencies.
+     */
+    record LatencyModel(String kind, double a, double b) {
+
+        static LatencyModel parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            String[] values = parts.length > 1 ? parts[1].split("[-,]") : new String[]{"0"};
+            double a = Double.parseDouble(values[0]);
+            double b = values.length > 1 ? Double.parseDouble(values[1]) : a;
+            return switch (parts[0]) {
+                case "fixed", "uniform", "lognormal" -> new LatencyModel(parts[0], a, b);
+                default -> throw new IllegalArgumentException("Unknown latency model: " + spec);
+            };
+        }
+
+        long sample(Random random) {
+            return switch (kind) {
+                case "uniform" -> (long) (a + random.nextDouble() * (b - a));
+                case "lognormal" -> (long) (a * Math.exp(b * random.nextGaussian()));
+                default -> (long) a;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + a + (kind.equals("fixed") ? "" : "," + b);
+        }
+    }
+
+    /**
+     * A recorded provider interaction replayed when its match string occurs in the prompt.
+     */
+    record Fixture(String name, String match, long latencyMs, int status, JsonNode response) {
+
+        static List<Fixture> loadAll(Path dir) throws IOException {
+            List<Fixture> fixtures = new ArrayList<>();
+            if (!Files.isDirectory(dir)) {
+                return fixtures;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                    JsonNode node = MAPPER.readTree(file.toFile());
+                    if (node.path("match").asText().isEmpty()) {
+                        throw new IllegalArgumentException("Fixture " + file + " has no \"match\" string");
+                    }
+                    fixtures.add(new Fixture(
+                            file.getFileName().toString(),
+                            node.path("match").asText(),
+                            node.path("latencyMs").asLong(-1),
+                            node.path("status").asInt(200),
+                            node.path("response")));
+                }
+            }
+            return fixtures;
+        }
+    }
+}
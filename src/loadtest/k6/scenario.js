@@ -0,0 +1,146 @@
+// End-to-end user journey against a backend wired to the fake OpenAI server.
+//
+//   ./mvnw -Ploadtest test-compile exec:java                                  (fake provider on :8089)
+//   OPENAI_BASE_URL=http://localhost:8089/v1 openai.api.key=fake ./mvnw spring-boot:run
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=50 -e DURATION=5m src/loadtest/k6/scenario.js
+//
+// Each iteration: signup -> login -> create resume -> N autosaves -> tailor -> cover letter.
+// Requests are tagged by endpoint; the end-of-test summary prints throughput (http_reqs rate)
+// and p50/p90/p95/p99 latency per endpoint, and the thresholds below fail the run on regressions.
+
+import http from 'k6/http';
+import { check, fail, sleep } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '20');
+const DURATION = __ENV.DURATION || '2m';
+const AUTOSAVES = parseInt(__ENV.AUTOSAVES || '5');
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '1');
+
+// p95 budgets in ms; AI endpoints include the simulated provider latency
+const ENDPOINTS = {
+    signup: 1000,
+    login: 500,
+    create: 500,
+    autosave: 300,
+    tailor: 8000,
+    'cover-letter': 8000,
+};
+
+const thresholds = { http_req_failed: ['rate<0.02'] };
+for (const [name, p95] of Object.entries(ENDPOINTS)) {
+    thresholds[`http_req_duration{endpoint:${name}}`] = [`p(95)<${p95}`];
+    // Empty-ish threshold so the summary lists per-endpoint request counts and rates
+    thresholds[`http_reqs{endpoint:${name}}`] = ['count>=0'];
+}
+
+export const options = {
+    scenarios: {
+        journey: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+    thresholds,
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max', 'count'],
+};
+
+const JOB_DESCRIPTION =
+    'We are hiring a Senior Backend Engineer to build and scale our Java / Spring Boot platform. ' +
+    'You will design REST APIs, own PostgreSQL performance, deploy on Kubernetes and AWS, ' +
+    'and mentor other engineers. Experience with Kafka, Redis and observability tooling is a plus.';
+
+function resumeData(revision) {
+    return {
+        personalInfo: {
+            fullName: 'Load Test User',
+            email: 'loadtest@example.com',
+            phone: '+1 514 555 0100',
+            location: 'Montréal, QC',
+        },
+        summary: `Backend engineer with 6 years of Java experience (revision ${revision}).`,
+        experience: [
+            {
+                company: 'Acme Corp',
+                role: 'Software Engineer II',
+                startDate: '2021-01',
+                endDate: 'Present',
+                bullets: [
+                    'Developed RESTful APIs with Spring Boot serving 2M requests per day',
+                    'Reduced p95 latency by 40% by reworking PostgreSQL queries and indexes',
+                    'Led the migration of batch jobs to Kubernetes CronJobs',
+                ],
+            },
+            {
+                company: 'Startup Inc',
+                role: 'Software Engineer',
+                startDate: '2018-06',
+                endDate: '2020-12',
+                bullets: [
+                    'Built the billing service integrating Stripe webhooks',
+                    'Implemented CI pipelines cutting release time from days to hours',
+                ],
+            },
+        ],
+        education: [{ school: 'Université de Montréal', degree: 'B.Sc. Computer Science', endDate: '2018-05' }],
+        projects: [{ title: 'ResAi', technologies: ['Spring Boot', 'React'], bullets: ['Resume builder with AI tailoring'] }],
+        skills: ['Java', 'Spring Boot', 'PostgreSQL', 'Kubernetes', 'AWS', 'Docker'],
+    };
+}
+
+function post(path, body, endpoint, token) {
+    return http.post(`${BASE_URL}${path}`, JSON.stringify(body), params(endpoint, token));
+}
+
+function params(endpoint, token) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+    return { headers, tags: { endpoint } };
+}
+
+export default function () {
+    const email = `lt-${exec.vu.idInTest}-${exec.vu.iterationInScenario}-${Date.now()}@loadtest.local`;
+    const password = 'LoadTest123!';
+
+    const signup = post('/api/users/create', { email, password }, 'signup');
+    if (!check(signup, { 'signup 200': (r) => r.status === 200 })) {
+        fail(`signup failed: ${signup.status}`);
+    }
+
+    const login = post('/api/users/login', { email, password }, 'login');
+    if (!check(login, { 'login 200': (r) => r.status === 200 })) {
+        fail(`login failed: ${login.status}`);
+    }
+    const token = login.json('token');
+    sleep(THINK_TIME);
+
+    const create = post('/api/resumes/create', { title: 'Load test resume', data: resumeData(0) }, 'create', token);
+    if (!check(create, { 'create 200': (r) => r.status === 200 })) {
+        fail(`create failed: ${create.status}`);
+    }
+    const resumeId = create.json('id');
+
+    // The editor autosaves every few seconds while the user types
+    for (let i = 1; i <= AUTOSAVES; i++) {
+        const save = http.put(`${BASE_URL}/api/resumes/update/${resumeId}`,
+            JSON.stringify({ data: resumeData(i) }), params('autosave', token));
+        check(save, { 'autosave 200': (r) => r.status === 200 });
+        sleep(THINK_TIME);
+    }
+
+    const tailor = post(`/api/resumes/${resumeId}/tailor`, { jobDescription: JOB_DESCRIPTION }, 'tailor', token);
+    check(tailor, { 'tailor 200': (r) => r.status === 200 });
+    sleep(THINK_TIME);
+
+    const letter = post(`/api/resumes/${resumeId}/cover-letter`, { jobDescription: JOB_DESCRIPTION }, 'cover-letter', token);
+    check(letter, { 'cover-letter 200': (r) => r.status === 200 });
+}
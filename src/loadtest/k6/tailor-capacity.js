@@ -0,0 +1,95 @@
+// Concurrent tailoring capacity: how many in-flight tailor requests the backend sustains
+// while the provider takes ~LATENCY to answer, and what that does to the rest of the API.
+//
+// Run the fake provider with a fixed latency, then the backend once per mode:
+//   ./mvnw -Ploadtest test-compile exec:java -Dfake.latency=fixed:3000
+//   VIRTUAL_THREADS=false OPENAI_BASE_URL=http://localhost:8089/v1 openai.api.key=fake ./mvnw spring-boot:run
+//   k6 run -e RATE=100 src/loadtest/k6/tailor-capacity.js
+//   (restart with VIRTUAL_THREADS=true and run again)
+//
+// Compare per mode: tailor throughput (http_reqs{endpoint:tailor} rate), dropped_iterations,
+// tailor and ping-probe p95, and 503s from admission control. At RATE req/s and 3 s provider
+// latency, ~3 x RATE tailorings must be in flight to keep up.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '100');
+const DURATION = __ENV.DURATION || '2m';
+const USERS = parseInt(__ENV.USERS || '50');
+
+export const options = {
+    scenarios: {
+        tailor: {
+            executor: 'constant-arrival-rate',
+            exec: 'tailor',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: RATE * 4,
+            maxVUs: RATE * 20,
+        },
+        // A cheap authenticated read running alongside, to show whether tailoring starves everything else
+        probe: {
+            executor: 'constant-arrival-rate',
+            exec: 'probe',
+            rate: 10,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 20,
+        },
+    },
+    thresholds: {
+        'http_req_duration{endpoint:tailor}': ['p(95)>=0'],
+        'http_req_duration{endpoint:probe}': ['p(95)>=0'],
+        'http_reqs{endpoint:tailor}': ['count>=0'],
+        'http_reqs{endpoint:probe}': ['count>=0'],
+        'checks{result:busy}': ['rate>=0'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max', 'count'],
+};
+
+const JOB_DESCRIPTION = 'Senior Backend Engineer: Java, Spring Boot, PostgreSQL, Kubernetes, AWS.';
+
+export function setup() {
+    const sessions = [];
+    for (let i = 0; i < USERS; i++) {
+        const email = `cap-${i}-${Date.now()}@loadtest.local`;
+        const password = 'LoadTest123!';
+        http.post(`${BASE_URL}/api/users/create`, JSON.stringify({ email, password }), json());
+        const token = http.post(`${BASE_URL}/api/users/login`, JSON.stringify({ email, password }), json()).json('token');
+        const resume = http.post(`${BASE_URL}/api/resumes/create`, JSON.stringify({
+            title: 'Capacity test',
+            data: {
+                summary: 'Backend engineer with 6 years of Java experience.',
+                experience: [{ company: 'Acme', role: 'Engineer', bullets: ['Built APIs', 'Tuned PostgreSQL'] }],
+                skills: ['Java', 'Spring Boot', 'PostgreSQL'],
+            },
+        }), json(token));
+        sessions.push({ token, resumeId: resume.json('id') });
+    }
+    return { sessions };
+}
+
+export function tailor(data) {
+    const session = data.sessions[Math.floor(Math.random() * data.sessions.length)];
+    const res = http.post(`${BASE_URL}/api/resumes/${session.resumeId}/tailor`,
+        JSON.stringify({ jobDescription: JOB_DESCRIPTION }), json(session.token, 'tailor'));
+    check(res, { ok: (r) => r.status === 200 });
+    check(res, { busy: (r) => r.status === 503 }, { result: 'busy' });
+}
+
+export function probe(data) {
+    const session = data.sessions[0];
+    const res = http.get(`${BASE_URL}/api/resumes/${session.resumeId}`, json(session.token, 'probe'));
+    check(res, { 'probe 200': (r) => r.status === 200 });
+}
+
+function json(token, endpoint) {
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers.Authorization = `Bearer ${token}`;
+    }
+    return endpoint ? { headers, tags: { endpoint } } : { headers };
+}
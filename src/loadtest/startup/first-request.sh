@@ -0,0 +1,66 @@
+#!/bin/bash
+# Time-to-first-request for each image target in the Dockerfile: builds the image,
+# starts it against $DATABASE_URL, waits for /actuator/health/readiness and times a
+# login (a real request through security, JPA and Jackson).
+#
+#   DATABASE_URL=jdbc:postgresql://host.docker.internal:5432/resai \
+#   DATABASE_USER=postgres DATABASE_PASSWORD=postgres \
+#   src/loadtest/startup/first-request.sh [jar cds crac]
+#
+# The crac target needs two runs: the first creates the checkpoint (kept in the
+# resai-crac volume), the second restores from it.
+set -euo pipefail
+
+: "${DATABASE_URL:?set DATABASE_URL}"
+: "${DATABASE_USER:?set DATABASE_USER}"
+: "${DATABASE_PASSWORD:?set DATABASE_PASSWORD}"
+PORT=${PORT:-18080}
+TARGETS=${*:-jar cds}
+
+now_ms() { date +%s%3N; }
+
+run_target() {
+    local target=$1 name="resai-startup-$1"
+    local extra=()
+    if [ "$target" = crac ]; then
+        extra=(--cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE -v resai-crac:/crac)
+    fi
+
+    docker rm -f "$name" >/dev/null 2>&1 || true
+    local start
+    start=$(now_ms)
+    docker run -d --name "$name" -p "$PORT:8080" "${extra[@]}" \
+        -e spring.datasource.url="$DATABASE_URL" \
+        -e spring.datasource.username="$DATABASE_USER" \
+        -e spring.datasource.password="$DATABASE_PASSWORD" \
+        -e openai.api.key="${OPENAI_API_KEY:-startup-test}" \
+        -e OPENAI_BASE_URL="${OPENAI_BASE_URL:-https://api.openai.com/v1}" \
+        "resai:$target" >/dev/null
+
+    until curl -fs "http://localhost:$PORT/actuator/health/readiness" >/dev/null; do
+        if ! docker ps -q -f name="$name" | grep -q .; then
+            echo "$target: container exited before readiness (checkpoint run?)"
+            docker logs --tail 20 "$name"
+            return
+        fi
+        sleep 0.05
+    done
+    local ready
+    ready=$(now_ms)
+
+    curl -s -o /dev/null -X POST "http://localhost:$PORT/api/users/login" \
+        -H 'Content-Type: application/json' \
+        -d '{"email":"first-request@resai.invalid","password":"first-request"}'
+    local served
+    served=$(now_ms)
+
+    printf '%-5s ready %6d ms   first request %5d ms   total %6d ms\n' \
+        "$target" $((ready - start)) $((served - ready)) $((served - start))
+    docker logs "$name" 2>&1 | grep -E 'Started .* in|Warm-up finished|First request' || true
+    docker rm -f "$name" >/dev/null
+}
+
+for target in $TARGETS; do
+    docker build -q --target "$target" -t "resai:$target" . >/dev/null
+    run_target "$target"
+done
@@ -0,0 +1,17 @@
+#!/bin/sh
+# Restores from /crac/checkpoint when one exists, otherwise starts normally and
+# checkpoints once the context has refreshed (the JVM exits after the dump).
+# Warm-up and readiness happen after restore, as ApplicationRunners run then.
+set -e
+
+CHECKPOINT_DIR=${CRAC_CHECKPOINT_DIR:-/crac/checkpoint}
+
+if [ -d "$CHECKPOINT_DIR" ] && [ -n "$(ls -A "$CHECKPOINT_DIR" 2>/dev/null)" ]; then
+    exec java -XX:CRaCRestoreFrom="$CHECKPOINT_DIR" "$@"
+fi
+
+mkdir -p "$CHECKPOINT_DIR"
+exec java -XX:CRaCCheckpointTo="$CHECKPOINT_DIR" \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.checkpoint=onRefresh \
+    -jar /app/app.jar "$@"
@@ -0,0 +1,87 @@
+package org.example.resai.concurrency;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Takes a bulkhead permit before borrowing a pooled connection and gives it back
+ * when the connection is closed (returned to the pool). Rejections surface as
+ * SQLTransientConnectionException, the same type Hikari throws on pool timeout,
+ * so callers see an early pool timeout rather than a new kind of failure.
+ */
+public class AdmissionControlledDataSource extends DelegatingDataSource {
+
+    private final Supplier<Bulkhead> bulkhead;
+
+    public AdmissionControlledDataSource(DataSource target, Supplier<Bulkhead> bulkhead) {
+        super(target);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admit(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection admit(ConnectionSource source) throws SQLException {
+        Bulkhead permits = bulkhead.get();
+        try {
+            permits.acquire();
+        } catch (AdmissionRejectedException e) {
+            throw new SQLTransientConnectionException(e.getMessage(), e);
+        }
+
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return releasingOnClose(connection, permits);
+    }
+
+    private static Connection releasingOnClose(Connection connection, Bulkhead permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.resai.concurrency;
+
+/**
+ * Thrown when a bulkhead has no permit to give within its wait budget,
+ * or already has its maximum number of waiters queued.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public AdmissionRejectedException(String bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.resai.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fair semaphore with a bounded wait queue in front of a scarce resource.
+ *
+ * With virtual threads, request concurrency is no longer capped by the Tomcat pool,
+ * so thousands of requests can pile up on the next limit (Hikari, the OpenAI account).
+ * The bulkhead makes that limit explicit: callers park cheaply while waiting, and once
+ * maxWaiters are queued or the wait budget runs out they are rejected immediately
+ * instead of timing out one by one.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxWaiters;
+    private final long waitTimeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public Bulkhead(String name, int permits, int maxWaiters, Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(permits, true);
+        this.maxWaiters = maxWaiters;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+
+        this.waitTimer = Timer.builder("admission.wait")
+                .description("Time spent waiting for a bulkhead permit")
+                .tag("bulkhead", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = rejectedCounter(meterRegistry, "queue_full");
+        this.timeoutCounter = rejectedCounter(meterRegistry, "timeout");
+        Gauge.builder("admission.permits.available", this.permits, Semaphore::availablePermits)
+                .description("Bulkhead permits currently free")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("admission.waiting", waiting, AtomicInteger::get)
+                .description("Callers queued for a bulkhead permit")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            queueFullCounter.increment();
+            throw new AdmissionRejectedException(name, "Too many requests waiting for " + name);
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException(name, "Interrupted while waiting for " + name);
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            timeoutCounter.increment();
+            throw new AdmissionRejectedException(name, "Timed out waiting for " + name);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Callers turned away by a bulkhead")
+                .tags("bulkhead", name, "reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.resai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.resai.concurrency.Bulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bulkheads in front of the two scarce resources a request can block on:
+ * pooled DB connections and concurrent OpenAI calls. The DB bulkheads are
+ * applied to the pools in {@link DataSourceConfig}.
+ */
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    public Bulkhead dbBulkhead(MeterRegistry meterRegistry,
+                               @Value("${admission.db.permits:${spring.datasource.hikari.maximumPoolSize:10}}") int permits,
+                               @Value("${admission.db.max-waiters:200}") int maxWaiters,
+                               @Value("${admission.db.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        return new Bulkhead("db", permits, maxWaiters, Duration.ofMillis(waitTimeoutMs), meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead aiBulkhead(MeterRegistry meterRegistry,
+                               @Value("${admission.ai.permits:64}") int permits,
+                               @Value("${admission.ai.max-waiters:500}") int maxWaiters,
+                               @Value("${admission.ai.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        return new Bulkhead("ai", permits, maxWaiters, Duration.ofMillis(waitTimeoutMs), meterRegistry);
+    }
+}
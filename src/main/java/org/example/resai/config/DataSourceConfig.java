@@ -0,0 +1,44 @@
+package org.example.resai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.resai.concurrency.AdmissionControlledDataSource;
+import org.example.resai.concurrency.Bulkhead;
+import org.example.resai.tracing.SqlStatementRecorder;
+import org.example.resai.tracing.StatementTracingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Decorates each connection pool (the single auto-configured one, or the primary and
+ * replica pools from {@link ReadReplicaConfig}): admission permits around the pool,
+ * statement timing around that. The routing DataSource above the pools is left alone
+ * so nothing is counted twice.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Static so the post-processor doesn't force early creation of this configuration;
+    // the bulkheads and recorder are looked up lazily on first use
+    @Bean
+    public static BeanPostProcessor poolDecoratingPostProcessor(@Qualifier("dbBulkhead") ObjectProvider<Bulkhead> dbBulkhead,
+                                                                @Qualifier("replicaDbBulkhead") ObjectProvider<Bulkhead> replicaDbBulkhead,
+                                                                ObjectProvider<SqlStatementRecorder> sqlStatementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource dataSource)) {
+                    return bean;
+                }
+                boolean replica = ReadReplicaConfig.REPLICA_DATA_SOURCE.equals(beanName);
+                ObjectProvider<Bulkhead> permits = replica ? replicaDbBulkhead : dbBulkhead;
+                return new StatementTracingDataSource(
+                        new AdmissionControlledDataSource(dataSource, permits::getObject),
+                        replica ? "replica" : "primary",
+                        sqlStatementRecorder::getObject);
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.resai.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modules for Boot's auto-configured ObjectMapper, which serializes request/response
+ * bodies and backs ResumeJson.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Generated accessors (LambdaMetafactory) instead of reflection for bean properties;
+    // the successor to Afterburner on Java 11+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.resai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.resai.concurrency.Bulkhead;
+import org.example.resai.datasource.ReadWriteRoutingDataSource;
+import org.example.resai.datasource.ReplicaLagTracker;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Primary + read replica pools, active only when datasource.replica.url is set
+ * (otherwise Boot's single auto-configured pool is used as before).
+ *
+ * The application sees one DataSource: a lazy proxy over ReadWriteRoutingDataSource.
+ * Each pool is sized and admission-controlled separately. Hibernate is switched to
+ * release its connection after every transaction; with open-in-view it would
+ * otherwise keep the first transaction's connection, and so its pool, for the
+ * rest of the request.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:}") String username,
+                                              @Value("${datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? primary.determineUsername() : username)
+                .password(password.isEmpty() ? primary.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        // A real standby rejects writes anyway; this makes a same-server stand-in behave the same
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public Bulkhead replicaDbBulkhead(MeterRegistry meterRegistry,
+                                      @Value("${admission.replica-db.permits:${datasource.replica.hikari.maximumPoolSize:10}}") int permits,
+                                      @Value("${admission.replica-db.max-waiters:${admission.db.max-waiters:200}}") int maxWaiters,
+                                      @Value("${admission.replica-db.wait-timeout-ms:${admission.db.wait-timeout-ms:5000}}") long waitTimeoutMs) {
+        return new Bulkhead("replica-db", permits, maxWaiters, Duration.ofMillis(waitTimeoutMs), meterRegistry);
+    }
+
+    @Bean
+    public ReplicaLagTracker replicaLagTracker(@Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                               @Value("${datasource.replica.read-your-writes-ms:2000}") long readYourWritesMs) {
+        return new ReplicaLagTracker(replica, Duration.ofMillis(maxLagMs), Duration.ofMillis(readYourWritesMs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier(REPLICA_DATA_SOURCE) DataSource replica,
+                                 ReplicaLagTracker replicaLagTracker,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagTracker, meterRegistry);
+        routing.afterPropertiesSet();
+
+        // Defaults given up front so the proxy doesn't borrow a connection at startup to find them
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
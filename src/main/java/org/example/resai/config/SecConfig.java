@@ -2,15 +2,21 @@ package org.example.resai.config;
 
 import org.example.resai.security.JwtAuthFilter;
 import org.example.resai.security.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -32,7 +38,37 @@ public class SecConfig {
         this.customUserDetailsService = customUserDetailsService;
     }
 
+    /**
+     * The metrics scrape endpoint, for the scraper only: HTTP Basic with the
+     * metrics.scrape credentials. With no password configured it refuses everyone.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(
+            HttpSecurity http,
+            @Value("${metrics.scrape.username:prometheus}") String username,
+            @Value("${metrics.scrape.password:}") String password) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults());
+
+        if (password.isBlank()) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+        } else {
+            http
+                    .userDetailsService(new InMemoryUserDetailsManager(User.withUsername(username)
+                            .password(passwordEncoder().encode(password))
+                            .roles("METRICS")
+                            .build()))
+                    .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"));
+        }
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
@@ -44,6 +80,8 @@ public class SecConfig {
                                 "/ping",      // Render health-check
                                 "/healthz",
                                 "/actuator/health",
+                                "/actuator/health/liveness",
+                                "/actuator/health/readiness",
                                 "/api/users/login",
                                 "/api/users/create"
                         ).permitAll()
@@ -0,0 +1,25 @@
+package org.example.resai.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Support for the CDS training run in the Dockerfile, which starts the context with
+ * spring.context.exit=onRefresh and no database. In an AOT-processed build,
+ * spring.flyway.enabled is fixed at build time, so migrations are skipped here
+ * at runtime instead.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (!"onRefresh".equals(environment.getProperty("spring.context.exit"))) {
+                flyway.migrate();
+            }
+        };
+    }
+}
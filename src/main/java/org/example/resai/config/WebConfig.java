@@ -2,12 +2,23 @@ package org.example.resai.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
 
+    // Endpoints that wait on OpenAI. Hibernate holds a session's connection until the
+    // session closes (Spring's DELAYED_ACQUISITION_AND_HOLD), and with open-in-view that
+    // is the end of the request, so these run without it and release after each transaction.
+    private static final String[] AI_PATHS = {
+            "/api/ai/**",
+            "/api/resumes/*/tailor",
+            "/api/resumes/*/cover-letter"
+    };
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -20,4 +31,20 @@ public class WebConfig {
             }
         };
     }
+
+    // Replaces Boot's open-in-view registration (which backs off when this bean exists)
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Bean
+    public WebMvcConfigurer openEntityManagerInViewConfigurer(OpenEntityManagerInViewInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addWebRequestInterceptor(interceptor).excludePathPatterns(AI_PATHS);
+            }
+        };
+    }
 }
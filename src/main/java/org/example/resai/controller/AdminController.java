@@ -2,22 +2,48 @@ package org.example.resai.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.resai.dto.AccessCodeSum;
+import org.example.resai.dto.AdminUserSum;
+import org.example.resai.dto.BulkUserReq;
+import org.example.resai.dto.BulkUserRes;
+import org.example.resai.event.PremiumChangedEvent;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.mapper.ResumeMapper;
 import org.example.resai.model.AccessCode;
 import org.example.resai.model.Resume;
 import org.example.resai.model.User;
 import org.example.resai.repository.ResumeRepo;
+import org.example.resai.repository.UserJdbcRepo;
 import org.example.resai.repository.UserRepo;
 import org.example.resai.security.Role;
 import org.example.resai.service.AccessCodeService;
+import org.example.resai.service.AdminUserService;
+import org.example.resai.service.DashboardStatsService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -26,9 +52,21 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AdminController {
 
+    private static final int MAX_CSV_BULK_COUNT = 100_000;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_RESUME_PAGE_SIZE = 20;
+    private static final int MAX_BULK_IDS = 100_000;
+    private static final Set<String> CODE_SORT_FIELDS = Set.of("createdAt", "activatedAt", "expiresAt", "code");
+
     private final AccessCodeService accessCodeService;
     private final UserRepo userRepo;
+    private final UserJdbcRepo userJdbcRepo;
     private final ResumeRepo resumeRepo;
+    private final ResumeMapper resumeMapper;
+    private final DashboardStatsService dashboardStatsService;
+    private final AdminUserService adminUserService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
 
     // ============ ACCESS CODE MANAGEMENT ============
 
@@ -100,6 +138,57 @@ public class AdminController {
         }
     }
 
+    /**
+     * Generate a large campaign of access codes, streamed back as CSV
+     * POST /api/admin/codes/generate-bulk/csv
+     */
+    @PostMapping("/codes/generate-bulk/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> generateBulkCodesCsv(
+            @RequestBody Map<String, Object> request,
+            @AuthenticationPrincipal User admin) {
+        Integer count = (Integer) request.get("count");
+        Integer durationDays = (Integer) request.get("durationDays");
+        String notes = (String) request.getOrDefault("notes", "");
+
+        if (count == null || count <= 0 || count > MAX_CSV_BULK_COUNT) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Count must be 1-" + MAX_CSV_BULK_COUNT));
+        }
+
+        if (durationDays == null || durationDays <= 0) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Invalid duration"));
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("code,duration_days\n");
+            accessCodeService.generateCodesInBatches(count, durationDays, notes, codes -> {
+                try {
+                    for (String code : codes) {
+                        writer.write(code);
+                        writer.write(',');
+                        writer.write(Integer.toString(durationDays));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            log.info("Admin {} generated {} codes (csv)", admin.getEmail(), count);
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"access-codes.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     /**
      * Get all access codes
      * GET /api/admin/codes
@@ -116,6 +205,47 @@ public class AdminController {
         }
     }
 
+    /**
+     * Page through access codes with optional filters
+     * GET /api/admin/codes/page?page=0&size=50&sort=createdAt&direction=desc&used=false
+     */
+    @GetMapping("/codes/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCodePage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) Boolean used,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdBefore,
+            @AuthenticationPrincipal User admin) {
+        try {
+            if (!CODE_SORT_FIELDS.contains(sort)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Sort must be one of " + CODE_SORT_FIELDS));
+            }
+            if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Size must be 1-" + MAX_PAGE_SIZE));
+            }
+
+            Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Pageable pageable = PageRequest.of(page, size, Sort.by(dir, sort).and(Sort.by(dir, "id")));
+
+            Page<AccessCodeSum> codes = accessCodeService.getCodePage(used, createdAfter, createdBefore, pageable);
+
+            return ResponseEntity.ok(Map.of(
+                    "content", codes.getContent(),
+                    "page", codes.getNumber(),
+                    "size", codes.getSize(),
+                    "totalElements", codes.getTotalElements(),
+                    "totalPages", codes.getTotalPages()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching code page: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get unused codes
      * GET /api/admin/codes/unused
@@ -176,15 +306,40 @@ public class AdminController {
     // ============ USER MANAGEMENT ============
 
     /**
-     * Get all users
-     * GET /api/admin/users
+     * List users, newest first, using keyset pagination
+     * GET /api/admin/users?size=50&after={lastId}&role=USER&premium=true&email=john&emailMatch=prefix
      */
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllUsers(@AuthenticationPrincipal User admin) {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Boolean premium,
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "prefix") String emailMatch,
+            @AuthenticationPrincipal User admin) {
         try {
-            List<User> users = userRepo.findAll();
-            return ResponseEntity.ok(users);
+            if (size <= 0 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Size must be 1-" + MAX_PAGE_SIZE));
+            }
+
+            String emailPattern = null;
+            if (email != null && !email.isBlank()) {
+                String escaped = email.trim().toLowerCase()
+                        .replace("\\", "\\\\")
+                        .replace("%", "\\%")
+                        .replace("_", "\\_");
+                emailPattern = "contains".equalsIgnoreCase(emailMatch) ? "%" + escaped + "%" : escaped + "%";
+            }
+
+            List<AdminUserSum> users = userJdbcRepo.findAdminPage(after, role, premium, emailPattern, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", users);
+            response.put("size", users.size());
+            response.put("nextCursor", users.size() == size ? users.get(users.size() - 1).getId() : null);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error fetching users: {}", e.getMessage());
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
@@ -207,12 +362,14 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Resume> resumes = resumeRepo.findByUserId(id);
+            // Counts and summaries only; full documents are fetched per resume via /users/{id}/resumes/{resumeId}.
+            // The page knows the total: it only runs its count query when the first page is full.
+            Page<ResumeRepo.SummaryView> resumes = resumeRepo.findSummariesByUserId(id, PageRequest.of(0, DEFAULT_RESUME_PAGE_SIZE));
 
             Map<String, Object> response = new HashMap<>();
             response.put("user", user);
-            response.put("resumeCount", resumes.size());
-            response.put("resumes", resumes);
+            response.put("resumeCount", resumes.getTotalElements());
+            response.put("resumes", resumes.getContent());
             response.put("isPremium", user.isPremium());
 
             return ResponseEntity.ok(response);
@@ -222,6 +379,61 @@ public class AdminController {
         }
     }
 
+    /**
+     * Page through a user's resume summaries
+     * GET /api/admin/users/{id}/resumes?page=0&size=20
+     */
+    @GetMapping("/users/{id}/resumes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUserResumes(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User admin) {
+        try {
+            if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Size must be 1-" + MAX_PAGE_SIZE));
+            }
+
+            Page<ResumeRepo.SummaryView> resumes = resumeRepo.findSummariesByUserId(id, PageRequest.of(page, size));
+
+            return ResponseEntity.ok(Map.of(
+                    "content", resumes.getContent(),
+                    "page", resumes.getNumber(),
+                    "size", resumes.getSize(),
+                    "totalElements", resumes.getTotalElements(),
+                    "totalPages", resumes.getTotalPages()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching user resumes: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a single resume of a user, including its document
+     * GET /api/admin/users/{id}/resumes/{resumeId}
+     */
+    @GetMapping("/users/{id}/resumes/{resumeId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUserResume(
+            @PathVariable Long id,
+            @PathVariable Long resumeId,
+            @AuthenticationPrincipal User admin) {
+        try {
+            Resume resume = resumeRepo.findByIdAndUserId(resumeId, id).orElse(null);
+
+            if (resume == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok(resumeMapper.toResponseDTO(resume));
+        } catch (Exception e) {
+            log.error("Error fetching user resume: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Update user role
      * PUT /api/admin/users/{id}/role
@@ -244,6 +456,7 @@ public class AdminController {
 
             user.setRole(newRole);
             userRepo.save(user);
+            invalidationBus.publish(InvalidationBus.USERS, user.getId());
 
             log.info("Admin {} updated user {} role to {}", admin.getEmail(), id, newRole);
 
@@ -276,6 +489,7 @@ public class AdminController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid days"));
             }
 
+            boolean wasPremium = user.isPremium();
             LocalDateTime newPremiumUntil;
             if (user.getPremiumUntil() != null && user.getPremiumUntil().isAfter(LocalDateTime.now())) {
                 newPremiumUntil = user.getPremiumUntil().plusDays(days);
@@ -285,6 +499,8 @@ public class AdminController {
 
             user.setPremiumUntil(newPremiumUntil);
             userRepo.save(user);
+            eventPublisher.publishEvent(new PremiumChangedEvent(user.getId(), wasPremium, true));
+            invalidationBus.publish(InvalidationBus.USERS, user.getId());
 
             log.info("Admin {} granted {} days premium to user {}", admin.getEmail(), days, id);
 
@@ -315,8 +531,11 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
 
+            boolean wasPremium = user.isPremium();
             user.setPremiumUntil(null);
             userRepo.save(user);
+            eventPublisher.publishEvent(new PremiumChangedEvent(user.getId(), wasPremium, false));
+            invalidationBus.publish(InvalidationBus.USERS, user.getId());
 
             log.info("Admin {} revoked premium from user {}", admin.getEmail(), id);
 
@@ -327,42 +546,156 @@ public class AdminController {
         }
     }
 
-    // ============ STATISTICS ============
+    // ============ BULK USER OPERATIONS ============
 
     /**
-     * Get dashboard statistics
-     * GET /api/admin/stats
+     * Grant premium to many users at once (extends active premium)
+     * POST /api/admin/users/bulk/grant-premium  { "ids": [...] | "filter": {...}, "days": 30 }
      */
-    @GetMapping("/stats")
+    @PostMapping("/users/bulk/grant-premium")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getStatistics(@AuthenticationPrincipal User admin) {
+    public ResponseEntity<?> bulkGrantPremium(
+            @RequestBody BulkUserReq request,
+            @AuthenticationPrincipal User admin) {
         try {
-            // User stats
-            Long totalUsers = userRepo.count();
-            Long premiumUsers = userRepo.countByPremiumUntilAfter(LocalDateTime.now());
-            Long freeUsers = totalUsers - premiumUsers;
+            String error = validateBulkTarget(request);
+            if (error == null && (request.getDays() == null || request.getDays() <= 0)) {
+                error = "Invalid days";
+            }
+            if (error != null) {
+                return ResponseEntity.badRequest().body(Map.of("error", error));
+            }
 
-            // Resume stats
-            Long totalResumes = resumeRepo.count();
+            BulkUserRes result = adminUserService.grantPremium(request, request.getDays());
+            publishBulkInvalidation(result);
+            log.info("Admin {} granted {} days premium to {} users", admin.getEmail(), request.getDays(), result.getAffected());
+            return bulkResponse(result);
+        } catch (Exception e) {
+            log.error("Error in bulk grant premium: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            // Code stats
-            AccessCodeService.CodeStatistics codeStats = accessCodeService.getStatistics();
+    /**
+     * Revoke premium from many users at once
+     * POST /api/admin/users/bulk/revoke-premium  { "ids": [...] | "filter": {...} }
+     */
+    @PostMapping("/users/bulk/revoke-premium")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkRevokePremium(
+            @RequestBody BulkUserReq request,
+            @AuthenticationPrincipal User admin) {
+        try {
+            String error = validateBulkTarget(request);
+            if (error != null) {
+                return ResponseEntity.badRequest().body(Map.of("error", error));
+            }
+
+            BulkUserRes result = adminUserService.revokePremium(request);
+            publishBulkInvalidation(result);
+            log.info("Admin {} revoked premium from {} users", admin.getEmail(), result.getAffected());
+            return bulkResponse(result);
+        } catch (Exception e) {
+            log.error("Error in bulk revoke premium: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Change the role of many users at once
+     * POST /api/admin/users/bulk/role  { "ids": [...] | "filter": {...}, "role": "USER" }
+     */
+    @PostMapping("/users/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdateRole(
+            @RequestBody BulkUserReq request,
+            @AuthenticationPrincipal User admin) {
+        try {
+            String error = validateBulkTarget(request);
+            if (error == null && request.getRole() == null) {
+                error = "Role is required";
+            }
+            if (error != null) {
+                return ResponseEntity.badRequest().body(Map.of("error", error));
+            }
+
+            BulkUserRes result = adminUserService.updateRole(request, admin.getId());
+            publishBulkInvalidation(result);
+            log.info("Admin {} set role {} on {} users", admin.getEmail(), request.getRole(), result.getAffected());
+            return bulkResponse(result);
+        } catch (Exception e) {
+            log.error("Error in bulk role update: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Bulk operations touch an open-ended set of users, so other nodes drop all they hold
+    private void publishBulkInvalidation(BulkUserRes result) {
+        if (result.getAffected() > 0) {
+            invalidationBus.publishAll(InvalidationBus.USERS);
+        }
+    }
+
+    // A failed chunk leaves earlier chunks committed; the body says how far it got
+    private ResponseEntity<?> bulkResponse(BulkUserRes result) {
+        return result.getFailedChunk() == null
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.status(500).body(result);
+    }
+
+    private String validateBulkTarget(BulkUserReq request) {
+        boolean hasIds = request.getIds() != null;
+        boolean hasFilter = request.getFilter() != null;
+        if (hasIds == hasFilter) {
+            return "Provide either ids or filter";
+        }
+        if (hasIds && (request.getIds().isEmpty() || request.getIds().size() > MAX_BULK_IDS)) {
+            return "Ids must contain 1-" + MAX_BULK_IDS + " entries";
+        }
+        // An empty filter would match every user
+        if (hasFilter && request.getFilter().getRole() == null && request.getFilter().getPremium() == null) {
+            return "Filter needs at least one criterion";
+        }
+        return null;
+    }
+
+    // ============ STATISTICS ============
+
+    /**
+     * Get dashboard statistics (precomputed, no table scans)
+     * GET /api/admin/stats?days=30
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getStatistics(
+            @RequestParam(required = false) Integer days,
+            @AuthenticationPrincipal User admin) {
+        try {
+            DashboardStatsService.DashboardStats current = dashboardStatsService.getStats();
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("users", Map.of(
-                    "total", totalUsers,
-                    "premium", premiumUsers,
-                    "free", freeUsers
+                    "total", current.totalUsers(),
+                    "premium", current.premiumUsers(),
+                    "free", current.freeUsers()
             ));
             stats.put("resumes", Map.of(
-                    "total", totalResumes
+                    "total", current.totalResumes()
             ));
             stats.put("codes", Map.of(
-                    "total", codeStats.totalCodes(),
-                    "used", codeStats.usedCodes(),
-                    "unused", codeStats.unusedCodes(),
-                    "recent", codeStats.recentCodes()
+                    "total", current.totalCodes(),
+                    "used", current.usedCodes(),
+                    "unused", current.unusedCodes(),
+                    "recent", current.recentCodes()
             ));
+            stats.put("reconciledAt", current.reconciledAt());
+
+            if (days != null) {
+                if (days <= 0 || days > 90) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Days must be 1-90"));
+                }
+                stats.put("series", dashboardStatsService.getSeries(days));
+            }
 
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
@@ -370,4 +703,4 @@ public class AdminController {
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package org.example.resai.controller;
+
+import org.example.resai.concurrency.AdmissionRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Turns a full AI bulkhead into 503 + Retry-After for every endpoint, so clients back off
+ * instead of treating it as a failure. Controllers with a catch-all must rethrow it.
+ */
+@RestControllerAdvice
+public class AdmissionRejectedHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<?> handleAdmissionRejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", RETRY_AFTER_SECONDS)
+                .body(Map.of("error", "AI service is busy, please retry shortly"));
+    }
+}
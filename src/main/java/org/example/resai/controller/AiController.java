@@ -1,12 +1,14 @@
 package org.example.resai.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.resai.concurrency.AdmissionRejectedException;
 import org.example.resai.dto.AiRequest;
 import org.example.resai.dto.AiResponse;
 import org.example.resai.model.User;
 import org.example.resai.security.JwtUtils;
 import org.example.resai.service.AiService;
 import org.example.resai.service.UserService;
+import org.example.resai.tracing.RequestTracer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,11 +22,12 @@ public class AiController {
     private final AiService aiService;
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final RequestTracer requestTracer;
 
     private User getUserFromToken(String authHeader) {
         String token = authHeader.substring(7);
-        String email = jwtUtils.extractEmail(token);
-        return userService.findByEmail(email);
+        String email = requestTracer.trace("jwt", () -> jwtUtils.extractEmail(token));
+        return requestTracer.trace("user-lookup", () -> userService.findByEmail(email));
     }
 
     @PostMapping("/generate-summary")
@@ -48,6 +51,8 @@ public class AiController {
                     .build();
 
             return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            throw e; // answered with 503 by AdmissionRejectedHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of(
@@ -80,6 +85,8 @@ public class AiController {
                     .build();
 
             return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            throw e; // answered with 503 by AdmissionRejectedHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of(
@@ -112,6 +119,8 @@ public class AiController {
                     .build();
 
             return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            throw e; // answered with 503 by AdmissionRejectedHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of(
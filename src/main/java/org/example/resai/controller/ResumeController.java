@@ -1,13 +1,17 @@
 package org.example.resai.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.resai.concurrency.AdmissionRejectedException;
 import org.example.resai.dto.ResumeReq;
 import org.example.resai.dto.ResumeRes;
+import org.example.resai.dto.ResumeSum;
 import org.example.resai.model.Resume;
 import org.example.resai.model.User;
 import org.example.resai.security.JwtUtils;
+import org.example.resai.service.ResumeConflictException;
 import org.example.resai.service.ResumeService;
 import org.example.resai.service.UserService;
+import org.example.resai.tracing.RequestTracer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -25,12 +29,13 @@ public class ResumeController {
     private final ResumeService resumeService;
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final RequestTracer requestTracer;
 
     // Helper method to extract user from token
     private User getUserFromToken(String authHeader) {
         String token = authHeader.substring(7); // Remove "Bearer "
-        String email = jwtUtils.extractEmail(token);
-        return userService.findByEmail(email);
+        String email = requestTracer.trace("jwt", () -> jwtUtils.extractEmail(token));
+        return requestTracer.trace("user-lookup", () -> userService.findByEmail(email));
     }
 
 
@@ -87,7 +92,7 @@ public class ResumeController {
     @PutMapping("/update/{id}")
     public ResponseEntity<?> updateResume(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> payload,
+            @RequestBody ResumeReq payload,
             @RequestHeader("Authorization") String authHeader) {
         try {
             User user = getUserFromToken(authHeader);
@@ -134,6 +139,62 @@ public class ResumeController {
 
     }
 
+    // Copy a resume without round-tripping its document through the client
+    @PostMapping("/{id}/duplicate")
+    public ResponseEntity<?> duplicateResume(
+            @PathVariable Long id,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            User user = getUserFromToken(authHeader);
+            if (user == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "User not found"));
+            }
+
+            List<ResumeSum> copies = resumeService.duplicateResume(id, user.getId(), 1);
+
+            if (copies.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "Resume not found or unauthorized"));
+            }
+
+            return ResponseEntity.status(201).body(copies.get(0));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to duplicate resume: " + e.getMessage()));
+        }
+    }
+
+    // N copies in one statement, e.g. one per job before batch tailoring
+    @PostMapping("/{id}/duplicate/bulk")
+    public ResponseEntity<?> duplicateResumeBulk(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> request,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            User user = getUserFromToken(authHeader);
+            if (user == null) {
+                return ResponseEntity.status(401).body(Map.of("error", "User not found"));
+            }
+
+            Integer count = request.get("count");
+            if (count == null) {
+                return ResponseEntity.status(400).body(Map.of("error", "count is required"));
+            }
+
+            List<ResumeSum> copies = resumeService.duplicateResume(id, user.getId(), count);
+
+            if (copies.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "Resume not found or unauthorized"));
+            }
+
+            return ResponseEntity.status(201).body(Map.of("resumes", copies));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", "Failed to duplicate resume: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/tailor")
     public ResponseEntity<?> tailorResume(
             @PathVariable Long id,
@@ -150,13 +211,21 @@ public class ResumeController {
                 return ResponseEntity.status(400).body(Map.of("error", "Job description is required"));
             }
 
-            Resume tailoredResume = resumeService.tailorResume(id, user.getId(), jobDescription);
+            ResumeRes tailoredResume = resumeService.tailorResume(id, user.getId(), jobDescription);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Resume tailored successfully",
                     "resume", tailoredResume
             ));
+        } catch (ResumeConflictException e) {
+            return ResponseEntity.status(409).body(Map.of(
+                    "error", "Resume was edited while it was being tailored; the tailored version was not saved",
+                    "currentVersion", e.getCurrentVersion(),
+                    "tailoredData", e.getTailoredData()
+            ));
+        } catch (AdmissionRejectedException e) {
+            throw e; // answered with 503 by AdmissionRejectedHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to tailor resume: " + e.getMessage()));
@@ -185,6 +254,8 @@ public class ResumeController {
                     "success", true,
                     "coverLetter", coverLetter
             ));
+        } catch (AdmissionRejectedException e) {
+            throw e; // answered with 503 by AdmissionRejectedHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to generate cover letter: " + e.getMessage()));
@@ -0,0 +1,106 @@
+package org.example.resai.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else
+ * (read-write transactions, auto-commit work such as Flyway) to the primary.
+ *
+ * The route is decided when a connection is first used, so this must sit behind a
+ * LazyConnectionDataSourceProxy: the JPA transaction manager borrows the connection
+ * before it publishes the transaction's read-only flag. Read-only readers fall back to
+ * the primary while the replica is lagging or they have just written (ReplicaLagTracker).
+ * Code that must always see the latest commit uses a read-write transaction.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    enum Route {
+        WRITE(Target.PRIMARY),
+        NO_TRANSACTION(Target.PRIMARY),
+        READ_YOUR_WRITES(Target.PRIMARY),
+        REPLICA_LAGGING(Target.PRIMARY),
+        READ_ONLY(Target.REPLICA);
+
+        final Target target;
+
+        Route(Target target) {
+            this.target = target;
+        }
+    }
+
+    private final ReplicaLagTracker lagTracker;
+    private final Map<Route, Counter> routeCounters = new EnumMap<>(Route.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagTracker lagTracker,
+                                      MeterRegistry meterRegistry) {
+        this.lagTracker = lagTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        for (Route route : Route.values()) {
+            routeCounters.put(route, Counter.builder("db.routing")
+                    .description("Connections handed out per pool and routing reason")
+                    .tag("target", route.target.name().toLowerCase(Locale.ROOT))
+                    .tag("reason", route.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        routeCounters.get(route).increment();
+        return route.target;
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.NO_TRANSACTION;
+        }
+
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Stamp at commit, not now: the replica can only start catching up once it's committed
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lagTracker.recordWrite(user);
+                    }
+                });
+            }
+            return Route.WRITE;
+        }
+
+        if (lagTracker.isLagging()) {
+            return Route.REPLICA_LAGGING;
+        }
+        if (user != null && lagTracker.hasRecentWrite(user)) {
+            return Route.READ_YOUR_WRITES;
+        }
+        return Route.READ_ONLY;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
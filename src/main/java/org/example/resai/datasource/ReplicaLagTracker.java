@@ -0,0 +1,95 @@
+package org.example.resai.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether the replica is fresh enough for a given reader.
+ *
+ * The replica's replay lag is sampled on a schedule; while it is above maxLag (or
+ * the replica can't be reached) every read goes to the primary. On top of that,
+ * a user who just committed a write keeps reading from the primary for
+ * readYourWrites plus the current lag, so they never see their own edit vanish.
+ *
+ * Writes are remembered per instance: a write handled by another instance doesn't
+ * pin this one, so the window should cover the lag on its own in multi-instance setups.
+ */
+@Slf4j
+public class ReplicaLagTracker {
+
+    // 0 on a primary (stand-in replica) and on a caught-up standby; an idle standby's
+    // last replay timestamp is old, so only count time while WAL is still being applied
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final JdbcTemplate replica;
+    private final long maxLagNanos;
+    private final long readYourWritesNanos;
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private volatile long lagNanos;
+    private volatile boolean reachable = true;
+
+    public ReplicaLagTracker(DataSource replica, Duration maxLag, Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagNanos = maxLag.toNanos();
+        this.readYourWritesNanos = readYourWrites.toNanos();
+
+        Gauge.builder("db.replica.lag", this, t -> t.reachable ? t.lagNanos / 1_000_000.0 : Double.NaN)
+                .baseUnit("milliseconds")
+                .description("Replay lag of the read replica (NaN while unreachable)")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.pinned_users", lastWrites, ConcurrentHashMap::size)
+                .description("Users reading from the primary after a recent write")
+                .register(meterRegistry);
+    }
+
+    /** True while the replica is unreachable or further behind than max-lag-ms. */
+    public boolean isLagging() {
+        return !reachable || lagNanos > maxLagNanos;
+    }
+
+    /** True if this user committed a write recently enough that the replica may not have it yet. */
+    public boolean hasRecentWrite(String user) {
+        Long writtenAt = lastWrites.get(user);
+        return writtenAt != null && System.nanoTime() - writtenAt < readYourWritesNanos + lagNanos;
+    }
+
+    public void recordWrite(String user) {
+        lastWrites.put(user, System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void sample() {
+        try {
+            Double lagMs = replica.queryForObject(LAG_QUERY, Double.class);
+            lagNanos = TimeUnit.MICROSECONDS.toNanos(Math.round((lagMs == null ? 0 : lagMs) * 1000));
+            if (!reachable) {
+                log.info("Read replica reachable again (lag {} ms)", Math.round(lagMs == null ? 0 : lagMs));
+            }
+            reachable = true;
+        } catch (RuntimeException e) {
+            if (reachable) {
+                log.warn("Read replica unreachable, reading from the primary: {}", e.getMessage());
+            }
+            reachable = false;
+        }
+
+        // Nobody can still be inside their window once it is longer than the worst lag we tolerate
+        long horizon = System.nanoTime() - (readYourWritesNanos + maxLagNanos);
+        lastWrites.values().removeIf(writtenAt -> writtenAt < horizon);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.resai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccessCodeSum {
+    private Long id;
+    private String code;
+    private Integer durationDays;
+    private Boolean isUsed;
+    private Long usedByUserId;
+    private String usedByEmail;
+    private LocalDateTime createdAt;
+    private LocalDateTime activatedAt;
+    private LocalDateTime expiresAt;
+    private String notes;
+}
@@ -0,0 +1,20 @@
+package org.example.resai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.resai.security.Role;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminUserSum {
+    private Long id;
+    private String email;
+    private String fullName;
+    private Role role;
+    private LocalDateTime premiumUntil;
+    private LocalDateTime createdAt;
+}
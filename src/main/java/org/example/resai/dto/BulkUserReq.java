@@ -0,0 +1,23 @@
+package org.example.resai.dto;
+
+import lombok.Data;
+import org.example.resai.security.Role;
+
+import java.util.List;
+
+@Data
+public class BulkUserReq {
+
+    // Either explicit ids or a filter selects the target users
+    private List<Long> ids;
+    private Filter filter;
+
+    private Integer days;  // grant-premium only
+    private Role role;     // role change only
+
+    @Data
+    public static class Filter {
+        private Role role;
+        private Boolean premium;
+    }
+}
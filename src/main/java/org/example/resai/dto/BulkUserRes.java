@@ -0,0 +1,23 @@
+package org.example.resai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserRes {
+    private String operation;
+    private int matched;
+    private int affected;
+    private List<Chunk> chunks;
+
+    // Set when a chunk failed: chunks before it are committed, it and later ones are not
+    private Integer failedChunk;
+    private String error;
+
+    public record Chunk(int index, int size, int affected, long elapsedMs) {}
+}
@@ -3,6 +3,8 @@ package org.example.resai.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import org.example.resai.model.resume.ResumeDocument;
+
 import java.util.Map;
 
 @Data
@@ -12,7 +14,7 @@ public class ResumeReq {
     private String title;
 
     @NotNull(message = "Resume data is required")
-    private Map<String, Object> data;  // ✅ Changed from String to Map
+    private ResumeDocument data;
 
     private Map<String, Object> aiMetadata;  // ✅ Changed from String to Map
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package org.example.resai.dto;
 
 import lombok.Data;
+import org.example.resai.model.resume.ResumeDocument;
+
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -9,9 +11,10 @@ public class ResumeRes {
 
     private Long id;
     private String title;
-    private Map<String, Object> data;  // ✅ Changed from String to Map
+    private ResumeDocument data;
     private Map<String, Object> aiMetadata;  // ✅ Changed from String to Map
     private Integer version;
+    private String language;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package org.example.resai.event;
+
+public record AccessCodeRedeemedEvent(String code, Long userId, boolean wasPremium) {
+}
@@ -0,0 +1,4 @@
+package org.example.resai.event;
+
+public record AccessCodesGeneratedEvent(int count) {
+}
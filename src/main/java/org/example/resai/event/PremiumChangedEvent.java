@@ -0,0 +1,4 @@
+package org.example.resai.event;
+
+public record PremiumChangedEvent(Long userId, boolean wasPremium, boolean isPremium) {
+}
@@ -0,0 +1,25 @@
+package org.example.resai.event;
+
+import java.util.List;
+
+/**
+ * Another instance changed data this node may hold in memory (see InvalidationBus).
+ * No keys means everything under the topic; {@link #flushAll()} is sent after the
+ * listener missed messages, e.g. while reconnecting.
+ */
+public record RemoteInvalidationEvent(String topic, List<String> keys) {
+
+    public static final String ALL_TOPICS = "*";
+
+    public static RemoteInvalidationEvent flushAll() {
+        return new RemoteInvalidationEvent(ALL_TOPICS, List.of());
+    }
+
+    public boolean concerns(String topic) {
+        return ALL_TOPICS.equals(this.topic) || this.topic.equals(topic);
+    }
+
+    public boolean flushes(String topic) {
+        return concerns(topic) && keys.isEmpty();
+    }
+}
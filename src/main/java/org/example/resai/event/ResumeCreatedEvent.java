@@ -0,0 +1,4 @@
+package org.example.resai.event;
+
+public record ResumeCreatedEvent(Long resumeId, Long userId) {
+}
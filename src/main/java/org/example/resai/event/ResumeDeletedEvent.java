@@ -0,0 +1,4 @@
+package org.example.resai.event;
+
+public record ResumeDeletedEvent(Long resumeId, Long userId) {
+}
@@ -0,0 +1,6 @@
+package org.example.resai.event;
+
+import java.time.LocalDateTime;
+
+public record UserSignedUpEvent(Long userId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,109 @@
+package org.example.resai.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tells the other instances which node-local state a write made stale, over
+ * Postgres NOTIFY. InvalidationListener on every node turns the messages back
+ * into RemoteInvalidationEvents; messages from this node are ignored there.
+ *
+ * Publish from inside the write's transaction when there is one: Postgres holds the
+ * notification until commit and drops it on rollback, so no node hears about a
+ * change it can't read yet. Outside a transaction it is sent immediately.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    public static final String CHANNEL = "resai_invalidation";
+
+    public static final String RESUMES = "resumes";
+    public static final String USERS = "users";
+    public static final String ACCESS_CODES = "access-codes";
+    // Carries counter deltas rather than keys (see DashboardStatsService)
+    public static final String DASHBOARD_STATS = "dashboard-stats";
+
+    // NOTIFY payloads must stay under 8000 bytes; bigger key sets are split
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+
+    // Identifies this process in payloads so the listener can skip its own messages
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter published;
+    private final Counter failed;
+
+    @Value("${invalidation.enabled:true}")
+    private boolean enabled;
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.published = Counter.builder("invalidation.published")
+                .description("Invalidation messages sent to other instances")
+                .register(registry);
+        this.failed = Counter.builder("invalidation.publish_failures")
+                .description("Invalidation messages that could not be sent")
+                .register(registry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public void publish(String topic, Object key) {
+        publish(topic, List.of(String.valueOf(key)));
+    }
+
+    /**
+     * Everything other nodes hold for the topic is stale (bulk writes whose keys
+     * aren't known or aren't worth sending).
+     */
+    public void publishAll(String topic) {
+        send(InvalidationMessage.encode(nodeId, topic, List.of()));
+    }
+
+    public void publish(String topic, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> chunk = new ArrayList<>();
+        int size = 0;
+        for (String key : keys) {
+            int keyBytes = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!chunk.isEmpty() && size + keyBytes > MAX_PAYLOAD_BYTES) {
+                send(InvalidationMessage.encode(nodeId, topic, chunk));
+                chunk = new ArrayList<>();
+                size = 0;
+            }
+            chunk.add(key);
+            size += keyBytes;
+        }
+        send(InvalidationMessage.encode(nodeId, topic, chunk));
+    }
+
+    // A lost message only delays other nodes until their periodic resync, so it's
+    // logged rather than thrown
+    private void send(String payload) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+            published.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Could not publish invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.example.resai.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.event.RemoteInvalidationEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * LISTENs on the invalidation channel and republishes other nodes' messages as
+ * RemoteInvalidationEvents on a dedicated thread.
+ *
+ * Uses its own connection outside the pool: it is held for the life of the process
+ * and would otherwise cost a pool slot and be recycled by maxLifetime. Postgres only
+ * queues notifications for sessions that are listening, so anything sent while
+ * disconnected is lost; every reconnect therefore publishes
+ * {@link RemoteInvalidationEvent#flushAll()} before resuming.
+ *
+ * Started as a lifecycle bean so it is listening before ApplicationReadyEvent, when
+ * node-local state is first built. Stopping and starting again (e.g. around a CRaC
+ * checkpoint) counts as a gap too.
+ */
+@Slf4j
+@Component
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final long MIN_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter received;
+    private final Counter gaps;
+
+    @Value("${invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${invalidation.poll-ms:5000}")
+    private int pollMs;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile boolean missedMessages;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public InvalidationListener(DataSourceProperties dataSourceProperties,
+                                InvalidationBus invalidationBus,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry registry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.invalidationBus = invalidationBus;
+        this.eventPublisher = eventPublisher;
+        this.received = Counter.builder("invalidation.received")
+                .description("Invalidation messages received from other instances")
+                .register(registry);
+        this.gaps = Counter.builder("invalidation.gaps")
+                .description("Reconnects after which all node-local state was flushed")
+                .register(registry);
+        Gauge.builder("invalidation.listener.connected", this, l -> l.connected ? 1 : 0)
+                .description("Whether this node is currently listening for invalidations")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+
+        // First connect on the caller's thread, so startup doesn't race ahead of LISTEN
+        try {
+            connection = listen();
+        } catch (SQLException e) {
+            missedMessages = true;
+            log.warn("Invalidation listener could not connect, retrying in the background: {}", e.getMessage());
+        }
+
+        thread = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        missedMessages = true;
+        closeQuietly(connection);
+        thread.interrupt();
+        try {
+            thread.join(VALIDATION_TIMEOUT_SECONDS * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        long backoffMs = MIN_BACKOFF_MS;
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = listen();
+                }
+                backoffMs = MIN_BACKOFF_MS;
+                receive(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                missedMessages = true;
+                log.warn("Invalidation listener disconnected, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            } finally {
+                if (connection != null && !connected) {
+                    closeQuietly(connection);
+                    connection = null;
+                }
+            }
+        }
+        connected = false;
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    private Connection listen() throws SQLException {
+        Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + InvalidationBus.CHANNEL);
+        } catch (SQLException e) {
+            closeQuietly(listening);
+            throw e;
+        }
+        connected = true;
+        log.info("Listening for invalidations on {} as node {}", InvalidationBus.CHANNEL, invalidationBus.nodeId());
+        return listening;
+    }
+
+    private void receive(Connection listening) throws SQLException {
+        PGConnection pg = listening.unwrap(PGConnection.class);
+        try {
+            if (missedMessages) {
+                missedMessages = false;
+                gaps.increment();
+                log.info("Invalidation listener reconnected, flushing node-local state");
+                dispatch(RemoteInvalidationEvent.flushAll());
+            }
+            while (running) {
+                PGNotification[] notifications = pg.getNotifications(pollMs);
+                if (notifications == null || notifications.length == 0) {
+                    // Nothing arrived: make sure that's not because the connection silently died
+                    if (!listening.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                        throw new SQLException("Listener connection is no longer valid");
+                    }
+                    continue;
+                }
+                for (PGNotification notification : notifications) {
+                    onNotification(notification.getParameter());
+                }
+            }
+        } catch (SQLException e) {
+            connected = false;
+            throw e;
+        }
+    }
+
+    private void onNotification(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn(e.getMessage());
+            return;
+        }
+        if (invalidationBus.nodeId().equals(message.nodeId())) {
+            return;
+        }
+        received.increment();
+        dispatch(new RemoteInvalidationEvent(message.topic(), message.keys()));
+    }
+
+    // A failing subscriber must not take the listener down with it
+    private void dispatch(RemoteInvalidationEvent event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Invalidation handler failed for topic {}", event.topic(), e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // already broken
+        }
+    }
+}
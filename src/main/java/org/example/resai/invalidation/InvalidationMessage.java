@@ -0,0 +1,24 @@
+package org.example.resai.invalidation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * NOTIFY payload: "node|topic|key,key,...". No keys means the whole topic.
+ * Topics and keys (ids, access codes) never contain '|' or ','.
+ */
+record InvalidationMessage(String nodeId, String topic, List<String> keys) {
+
+    static String encode(String nodeId, String topic, List<String> keys) {
+        return nodeId + '|' + topic + '|' + String.join(",", keys);
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed invalidation payload: " + payload);
+        }
+        List<String> keys = parts[2].isEmpty() ? List.of() : Arrays.asList(parts[2].split(","));
+        return new InvalidationMessage(parts[0], parts[1], keys);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.resai.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.resai.model.resume.ResumeDocument;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prebuilt readers/writers over the shared ObjectMapper for resume documents
+ * and provider responses. ObjectReader/ObjectWriter are immutable and
+ * thread-safe, and resolve their root (de)serializer once instead of on every call.
+ */
+@Component
+public class ResumeJson {
+
+    private final ObjectReader dataReader;
+    private final ObjectWriter dataWriter;
+    private final ObjectReader treeReader;
+
+    public ResumeJson(ObjectMapper objectMapper) {
+        this.dataReader = objectMapper.readerFor(ResumeDocument.class);
+        this.dataWriter = objectMapper.writerFor(ResumeDocument.class);
+        this.treeReader = objectMapper.reader();
+    }
+
+    public ResumeDocument readData(String json) throws JsonProcessingException {
+        return dataReader.readValue(json);
+    }
+
+    public String writeData(ResumeDocument data) throws JsonProcessingException {
+        return dataWriter.writeValueAsString(data);
+    }
+
+    public JsonNode readTree(String json) throws JsonProcessingException {
+        return treeReader.readTree(json);
+    }
+}
@@ -29,6 +29,7 @@ public class ResumeMapper {
         dto.setData(resume.getData());
         dto.setAiMetadata(resume.getAiMetadata());
         dto.setVersion(resume.getVersion());
+        dto.setLanguage(resume.getLanguage());
         dto.setCreatedAt(resume.getCreatedAt());
         dto.setUpdatedAt(resume.getUpdatedAt());
         return dto;
@@ -4,9 +4,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.model.type.JsonMapType;
+import org.example.resai.model.type.ResumeDocumentType;
 import org.hibernate.annotations.DynamicUpdate;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.Type;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -30,11 +32,12 @@ public class Resume {
     @Column(nullable = false)
     private String title;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    // Immutable values: replace them rather than editing in place (see JsonbType)
+    @Type(ResumeDocumentType.class)
     @Column(columnDefinition = "jsonb", nullable = false)
-    private Map<String, Object> data;
+    private ResumeDocument data;
 
-    @JdbcTypeCode(SqlTypes.JSON)
+    @Type(JsonMapType.class)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> aiMetadata;
 
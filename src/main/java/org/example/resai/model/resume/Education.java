@@ -0,0 +1,17 @@
+package org.example.resai.model.resume;
+
+import org.example.resai.model.type.FrozenJson;
+
+import java.util.Map;
+
+/** One entry in {@link ResumeDocument#education()}; grades, honours etc. are kept in {@code extra}. */
+public record Education(String school,
+                        String degree,
+                        String startDate,
+                        String endDate,
+                        Map<String, Object> extra) {
+
+    public Education {
+        extra = extra == null ? Map.of() : FrozenJson.freezeMap(extra);
+    }
+}
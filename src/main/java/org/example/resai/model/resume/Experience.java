@@ -0,0 +1,21 @@
+package org.example.resai.model.resume;
+
+import org.example.resai.model.type.FrozenJson;
+
+import java.util.List;
+import java.util.Map;
+
+/** One position in {@link ResumeDocument#experience()}. */
+public record Experience(String company,
+                         String role,
+                         String location,
+                         String startDate,
+                         String endDate,
+                         List<String> bullets,
+                         Map<String, Object> extra) {
+
+    public Experience {
+        bullets = FrozenJson.freezeList(bullets);
+        extra = extra == null ? Map.of() : FrozenJson.freezeMap(extra);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.resai.model.resume;
+
+import org.example.resai.model.type.FrozenJson;
+
+import java.util.Map;
+
+/** Contact block of a {@link ResumeDocument}; unknown fields (website, ...) are kept in {@code extra}. */
+public record PersonalInfo(String fullName,
+                           String email,
+                           String phone,
+                           String location,
+                           String linkedin,
+                           String github,
+                           Map<String, Object> extra) {
+
+    public PersonalInfo {
+        extra = extra == null ? Map.of() : FrozenJson.freezeMap(extra);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.resai.model.resume;
+
+import org.example.resai.model.type.FrozenJson;
+
+import java.util.List;
+import java.util.Map;
+
+/** One entry in {@link ResumeDocument#projects()}. */
+public record Project(String title,
+                      List<String> technologies,
+                      String link,
+                      List<String> bullets,
+                      Map<String, Object> extra) {
+
+    public Project {
+        technologies = FrozenJson.freezeList(technologies);
+        bullets = FrozenJson.freezeList(bullets);
+        extra = extra == null ? Map.of() : FrozenJson.freezeMap(extra);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.resai.model.resume;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.example.resai.model.type.FrozenJson;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The resume document stored in resumes.data and exchanged with the frontend and the AI
+ * provider. Sections the backend knows about are typed; anything else, including a known
+ * field whose JSON doesn't have the expected shape, is kept verbatim in {@code extra} and
+ * written back out, so a document always round-trips without loss. A null section means
+ * the document doesn't have it.
+ *
+ * Instances are deeply immutable: the constructors freeze every list and map they are
+ * given, down to the untyped values in {@code extra}. That lets the content hash be
+ * computed once, at construction, so comparing two documents (the dirty check in
+ * JsonbType) is O(1) unless their hashes match. A class rather than a record only
+ * because a record can't hold the cached hash. (De)serialized by {@link ResumeDocumentCodec}.
+ */
+@JsonSerialize(using = ResumeDocumentCodec.Serializer.class)
+@JsonDeserialize(using = ResumeDocumentCodec.Deserializer.class)
+public final class ResumeDocument {
+
+    private final PersonalInfo personalInfo;
+    private final String summary;
+    private final List<Experience> experience;
+    private final List<Project> projects;
+    private final List<Education> education;
+    private final List<String> skills;
+    private final Map<String, Object> extra;
+    private final int hash;
+
+    public ResumeDocument(PersonalInfo personalInfo,
+                          String summary,
+                          List<Experience> experience,
+                          List<Project> projects,
+                          List<Education> education,
+                          List<String> skills,
+                          Map<String, Object> extra) {
+        this.personalInfo = personalInfo;
+        this.summary = summary;
+        this.experience = FrozenJson.freezeList(experience);
+        this.projects = FrozenJson.freezeList(projects);
+        this.education = FrozenJson.freezeList(education);
+        this.skills = FrozenJson.freezeList(skills);
+        this.extra = extra == null ? Map.of() : FrozenJson.freezeMap(extra);
+        this.hash = Objects.hash(personalInfo, summary, this.experience, this.projects, this.education,
+                this.skills, this.extra);
+    }
+
+    public PersonalInfo personalInfo() {
+        return personalInfo;
+    }
+
+    public String summary() {
+        return summary;
+    }
+
+    public List<Experience> experience() {
+        return experience;
+    }
+
+    public List<Project> projects() {
+        return projects;
+    }
+
+    public List<Education> education() {
+        return education;
+    }
+
+    public List<String> skills() {
+        return skills;
+    }
+
+    public Map<String, Object> extra() {
+        return extra;
+    }
+
+    public boolean isEmpty() {
+        return personalInfo == null && summary == null && experience == null && projects == null
+                && education == null && skills == null && extra.isEmpty();
+    }
+
+    public ResumeDocument withSummary(String summary) {
+        return new ResumeDocument(personalInfo, summary, experience, projects, education, skills, extra);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResumeDocument other) || hash != other.hash) {
+            return false;
+        }
+        return Objects.equals(personalInfo, other.personalInfo)
+                && Objects.equals(summary, other.summary)
+                && Objects.equals(experience, other.experience)
+                && Objects.equals(projects, other.projects)
+                && Objects.equals(education, other.education)
+                && Objects.equals(skills, other.skills)
+                && extra.equals(other.extra);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumeDocument[personalInfo=" + personalInfo + ", summary=" + summary
+                + ", experience=" + experience + ", projects=" + projects + ", education=" + education
+                + ", skills=" + skills + ", extra=" + extra + "]";
+    }
+}
@@ -0,0 +1,445 @@
+package org.example.resai.model.resume;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming (de)serialization of {@link ResumeDocument}: walks the parser's tokens straight
+ * into the records, with no intermediate tree or map per object, and writes them back the
+ * same way. Known fields are written first in a fixed order, then {@code extra} entries.
+ *
+ * A known field whose value has an unexpected JSON type (null, a number, a list holding
+ * something other than strings/objects, ...) is read untyped into {@code extra} instead
+ * of failing, so documents saved before this model existed still load and save unchanged.
+ */
+final class ResumeDocumentCodec {
+
+    private ResumeDocumentCodec() {
+    }
+
+    static final class Deserializer extends StdDeserializer<ResumeDocument> {
+
+        Deserializer() {
+            super(ResumeDocument.class);
+        }
+
+        @Override
+        public ResumeDocument deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (ResumeDocument) ctxt.handleUnexpectedToken(ResumeDocument.class, p);
+            }
+            PersonalInfo personalInfo = null;
+            String summary = null;
+            List<Experience> experience = null;
+            List<Project> projects = null;
+            List<Education> education = null;
+            List<String> skills = null;
+            Map<String, Object> extra = null;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.START_OBJECT && "personalInfo".equals(name)) {
+                    personalInfo = readPersonalInfo(p, ctxt);
+                    continue;
+                }
+                if (token == JsonToken.VALUE_STRING && "summary".equals(name)) {
+                    summary = p.getText();
+                    continue;
+                }
+                if (token == JsonToken.START_ARRAY) {
+                    switch (name) {
+                        case "experience" -> {
+                            List<Object> values = readArray(p, ctxt, Deserializer::readExperience);
+                            if (allOf(values, Experience.class)) {
+                                experience = typed(values);
+                            } else {
+                                extra = put(extra, name, untyped(values));
+                            }
+                            continue;
+                        }
+                        case "projects" -> {
+                            List<Object> values = readArray(p, ctxt, Deserializer::readProject);
+                            if (allOf(values, Project.class)) {
+                                projects = typed(values);
+                            } else {
+                                extra = put(extra, name, untyped(values));
+                            }
+                            continue;
+                        }
+                        case "education" -> {
+                            List<Object> values = readArray(p, ctxt, Deserializer::readEducation);
+                            if (allOf(values, Education.class)) {
+                                education = typed(values);
+                            } else {
+                                extra = put(extra, name, untyped(values));
+                            }
+                            continue;
+                        }
+                        case "skills" -> {
+                            List<Object> values = readArray(p, ctxt, null);
+                            if (allOf(values, String.class)) {
+                                skills = typed(values);
+                            } else {
+                                extra = put(extra, name, Collections.unmodifiableList(values));
+                            }
+                            continue;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                extra = put(extra, name, ctxt.readValue(p, Object.class));
+            }
+            return new ResumeDocument(personalInfo, summary, experience, projects, education, skills, frozen(extra));
+        }
+
+        private static PersonalInfo readPersonalInfo(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String fullName = null;
+            String email = null;
+            String phone = null;
+            String location = null;
+            String linkedin = null;
+            String github = null;
+            Map<String, Object> extra = null;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                if (p.nextToken() == JsonToken.VALUE_STRING) {
+                    switch (name) {
+                        case "fullName" -> { fullName = p.getText(); continue; }
+                        case "email" -> { email = p.getText(); continue; }
+                        case "phone" -> { phone = p.getText(); continue; }
+                        case "location" -> { location = p.getText(); continue; }
+                        case "linkedin" -> { linkedin = p.getText(); continue; }
+                        case "github" -> { github = p.getText(); continue; }
+                        default -> {
+                        }
+                    }
+                }
+                extra = put(extra, name, ctxt.readValue(p, Object.class));
+            }
+            return new PersonalInfo(fullName, email, phone, location, linkedin, github, frozen(extra));
+        }
+
+        private static Experience readExperience(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String company = null;
+            String role = null;
+            String location = null;
+            String startDate = null;
+            String endDate = null;
+            List<String> bullets = null;
+            Map<String, Object> extra = null;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_STRING) {
+                    switch (name) {
+                        case "company" -> { company = p.getText(); continue; }
+                        case "role" -> { role = p.getText(); continue; }
+                        case "location" -> { location = p.getText(); continue; }
+                        case "startDate" -> { startDate = p.getText(); continue; }
+                        case "endDate" -> { endDate = p.getText(); continue; }
+                        default -> {
+                        }
+                    }
+                } else if (token == JsonToken.START_ARRAY && "bullets".equals(name)) {
+                    List<Object> values = readArray(p, ctxt, null);
+                    if (allOf(values, String.class)) {
+                        bullets = typed(values);
+                    } else {
+                        extra = put(extra, name, Collections.unmodifiableList(values));
+                    }
+                    continue;
+                }
+                extra = put(extra, name, ctxt.readValue(p, Object.class));
+            }
+            return new Experience(company, role, location, startDate, endDate, bullets, frozen(extra));
+        }
+
+        private static Project readProject(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String title = null;
+            List<String> technologies = null;
+            String link = null;
+            List<String> bullets = null;
+            Map<String, Object> extra = null;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_STRING) {
+                    switch (name) {
+                        case "title" -> { title = p.getText(); continue; }
+                        case "link" -> { link = p.getText(); continue; }
+                        default -> {
+                        }
+                    }
+                } else if (token == JsonToken.START_ARRAY && ("technologies".equals(name) || "bullets".equals(name))) {
+                    List<Object> values = readArray(p, ctxt, null);
+                    if (!allOf(values, String.class)) {
+                        extra = put(extra, name, Collections.unmodifiableList(values));
+                    } else if ("technologies".equals(name)) {
+                        technologies = typed(values);
+                    } else {
+                        bullets = typed(values);
+                    }
+                    continue;
+                }
+                extra = put(extra, name, ctxt.readValue(p, Object.class));
+            }
+            return new Project(title, technologies, link, bullets, frozen(extra));
+        }
+
+        private static Education readEducation(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String school = null;
+            String degree = null;
+            String startDate = null;
+            String endDate = null;
+            Map<String, Object> extra = null;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                if (p.nextToken() == JsonToken.VALUE_STRING) {
+                    switch (name) {
+                        case "school" -> { school = p.getText(); continue; }
+                        case "degree" -> { degree = p.getText(); continue; }
+                        case "startDate" -> { startDate = p.getText(); continue; }
+                        case "endDate" -> { endDate = p.getText(); continue; }
+                        default -> {
+                        }
+                    }
+                }
+                extra = put(extra, name, ctxt.readValue(p, Object.class));
+            }
+            return new Education(school, degree, startDate, endDate, frozen(extra));
+        }
+
+        // Parser is on START_ARRAY. Objects go through the entry reader (strings are kept
+        // as-is when there is none), anything else is read untyped.
+        private static List<Object> readArray(JsonParser p, DeserializationContext ctxt, EntryReader entries) throws IOException {
+            List<Object> values = new ArrayList<>();
+            for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                if (token == JsonToken.START_OBJECT && entries != null) {
+                    values.add(entries.read(p, ctxt));
+                } else if (token == JsonToken.VALUE_STRING && entries == null) {
+                    values.add(p.getText());
+                } else {
+                    values.add(ctxt.readValue(p, Object.class));
+                }
+            }
+            return values;
+        }
+
+        @FunctionalInterface
+        private interface EntryReader {
+            Object read(JsonParser p, DeserializationContext ctxt) throws IOException;
+        }
+    }
+
+    static final class Serializer extends StdSerializer<ResumeDocument> {
+
+        Serializer() {
+            super(ResumeDocument.class);
+        }
+
+        @Override
+        public void serialize(ResumeDocument document, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(document);
+            if (document.personalInfo() != null) {
+                gen.writeFieldName("personalInfo");
+                writePersonalInfo(document.personalInfo(), gen, provider);
+            }
+            writeString(gen, "summary", document.summary());
+            if (document.experience() != null) {
+                gen.writeArrayFieldStart("experience");
+                for (Experience entry : document.experience()) {
+                    writeExperience(entry, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            if (document.projects() != null) {
+                gen.writeArrayFieldStart("projects");
+                for (Project entry : document.projects()) {
+                    writeProject(entry, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            if (document.education() != null) {
+                gen.writeArrayFieldStart("education");
+                for (Education entry : document.education()) {
+                    writeEducation(entry, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            writeStrings(gen, "skills", document.skills());
+            writeExtra(gen, document.extra(), provider);
+            gen.writeEndObject();
+        }
+
+        private static void writePersonalInfo(PersonalInfo info, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeString(gen, "fullName", info.fullName());
+            writeString(gen, "email", info.email());
+            writeString(gen, "phone", info.phone());
+            writeString(gen, "location", info.location());
+            writeString(gen, "linkedin", info.linkedin());
+            writeString(gen, "github", info.github());
+            writeExtra(gen, info.extra(), provider);
+            gen.writeEndObject();
+        }
+
+        private static void writeExperience(Experience entry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (entry == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject();
+            writeString(gen, "company", entry.company());
+            writeString(gen, "role", entry.role());
+            writeString(gen, "location", entry.location());
+            writeString(gen, "startDate", entry.startDate());
+            writeString(gen, "endDate", entry.endDate());
+            writeStrings(gen, "bullets", entry.bullets());
+            writeExtra(gen, entry.extra(), provider);
+            gen.writeEndObject();
+        }
+
+        private static void writeProject(Project entry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (entry == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject();
+            writeString(gen, "title", entry.title());
+            writeStrings(gen, "technologies", entry.technologies());
+            writeString(gen, "link", entry.link());
+            writeStrings(gen, "bullets", entry.bullets());
+            writeExtra(gen, entry.extra(), provider);
+            gen.writeEndObject();
+        }
+
+        private static void writeEducation(Education entry, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (entry == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject();
+            writeString(gen, "school", entry.school());
+            writeString(gen, "degree", entry.degree());
+            writeString(gen, "startDate", entry.startDate());
+            writeString(gen, "endDate", entry.endDate());
+            writeExtra(gen, entry.extra(), provider);
+            gen.writeEndObject();
+        }
+
+        private static void writeString(JsonGenerator gen, String name, String value) throws IOException {
+            if (value != null) {
+                gen.writeStringField(name, value);
+            }
+        }
+
+        private static void writeStrings(JsonGenerator gen, String name, List<String> values) throws IOException {
+            if (values == null) {
+                return;
+            }
+            gen.writeArrayFieldStart(name);
+            for (String value : values) {
+                gen.writeString(value);
+            }
+            gen.writeEndArray();
+        }
+
+        private static void writeExtra(JsonGenerator gen, Map<String, Object> extra, SerializerProvider provider) throws IOException {
+            for (Map.Entry<String, Object> field : extra.entrySet()) {
+                provider.defaultSerializeField(field.getKey(), field.getValue(), gen);
+            }
+        }
+    }
+
+    // Typed entries in a list that also holds other values (rare: hand-edited or very old
+    // documents) go back to plain maps so the list is stored exactly as it came in
+
+    private static List<Object> untyped(List<Object> values) {
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(switch (value) {
+                case Experience e -> untyped(e);
+                case Project project -> untyped(project);
+                case Education education -> untyped(education);
+                case null, default -> value;
+            });
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Map<String, Object> untyped(Experience entry) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        putIfPresent(map, "company", entry.company());
+        putIfPresent(map, "role", entry.role());
+        putIfPresent(map, "location", entry.location());
+        putIfPresent(map, "startDate", entry.startDate());
+        putIfPresent(map, "endDate", entry.endDate());
+        putIfPresent(map, "bullets", entry.bullets());
+        map.putAll(entry.extra());
+        return map;
+    }
+
+    private static Map<String, Object> untyped(Project entry) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        putIfPresent(map, "title", entry.title());
+        putIfPresent(map, "technologies", entry.technologies());
+        putIfPresent(map, "link", entry.link());
+        putIfPresent(map, "bullets", entry.bullets());
+        map.putAll(entry.extra());
+        return map;
+    }
+
+    private static Map<String, Object> untyped(Education entry) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        putIfPresent(map, "school", entry.school());
+        putIfPresent(map, "degree", entry.degree());
+        putIfPresent(map, "startDate", entry.startDate());
+        putIfPresent(map, "endDate", entry.endDate());
+        map.putAll(entry.extra());
+        return map;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String name, Object value) {
+        if (value != null) {
+            map.put(name, value);
+        }
+    }
+
+    private static boolean allOf(List<Object> values, Class<?> type) {
+        for (Object value : values) {
+            if (!type.isInstance(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> typed(List<Object> values) {
+        return (List<T>) Collections.unmodifiableList(values);
+    }
+
+    // Most objects have no unknown fields, so the map is only created when one shows up
+    private static Map<String, Object> put(Map<String, Object> extra, String name, Object value) {
+        Map<String, Object> result = extra != null ? extra : new LinkedHashMap<>();
+        result.put(name, value);
+        return result;
+    }
+
+    private static Map<String, Object> frozen(Map<String, Object> extra) {
+        return extra == null ? Map.of() : Collections.unmodifiableMap(extra);
+    }
+}
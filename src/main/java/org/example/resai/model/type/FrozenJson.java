@@ -0,0 +1,142 @@
+package org.example.resai.model.type;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Deeply immutable copies of untyped JSON values (the maps, lists and scalars Jackson
+ * reads into Object). Every nested map and list is frozen too, so an in-place edit
+ * anywhere in the tree throws instead of going unnoticed by the dirty check. Frozen
+ * values are recognised and returned as they are, and cache their hash code.
+ */
+public final class FrozenJson {
+
+    private FrozenJson() {
+    }
+
+    public static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return freezeMap(map);
+        }
+        if (value instanceof List<?> list) {
+            return freezeList(list);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> freezeMap(Map<?, ?> map) {
+        if (map == null) {
+            return null;
+        }
+        if (map instanceof FrozenMap) {
+            return (Map<String, Object>) map;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        map.forEach((key, value) -> copy.put(String.valueOf(key), freeze(value)));
+        return new FrozenMap(Collections.unmodifiableMap(copy));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> freezeList(List<T> list) {
+        if (list == null) {
+            return null;
+        }
+        if (list instanceof FrozenList) {
+            return list;
+        }
+        List<Object> copy = new ArrayList<>(list.size());
+        for (T value : list) {
+            copy.add(freeze(value));
+        }
+        return (List<T>) new FrozenList(copy);
+    }
+
+    private static final class FrozenMap extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> entries;
+        private int hash;
+        private boolean hashIsZero;
+
+        FrozenMap(Map<String, Object> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return entries.entrySet();
+        }
+
+        @Override
+        public Object get(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public int hashCode() {
+            // Racy but safe, like String.hashCode: each field only ever holds a correct value
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = entries.hashCode();
+                if (h == 0) {
+                    hashIsZero = true;
+                } else {
+                    hash = h;
+                }
+            }
+            return h;
+        }
+    }
+
+    private static final class FrozenList extends AbstractList<Object> implements RandomAccess {
+
+        private final List<Object> values;
+        private int hash;
+        private boolean hashIsZero;
+
+        FrozenList(List<Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = values.hashCode();
+                if (h == 0) {
+                    hashIsZero = true;
+                } else {
+                    hash = h;
+                }
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.resai.model.type;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.Map;
+
+/** Free-form jsonb object (resumes.ai_metadata), read as a deeply unmodifiable map. */
+public class JsonMapType extends JsonbType<Map<String, Object>> {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @SuppressWarnings("unchecked")
+    public JsonMapType() {
+        super((Class<Map<String, Object>>) (Class<?>) Map.class, MAPPER.readerFor(MAP_TYPE), MAPPER.writerFor(MAP_TYPE));
+    }
+
+    @Override
+    protected Map<String, Object> immutable(Map<String, Object> value) {
+        return FrozenJson.freezeMap(value);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.resai.model.type;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * jsonb column mapped to an immutable value. Hibernate's own JSON mapping treats the value
+ * as mutable: every loaded document is deep-copied (serialized and parsed again) for the
+ * snapshot, and every flush compares the whole graph with it.
+ *
+ * Here the snapshot is the loaded instance itself, so loading costs nothing extra and an
+ * untouched document is recognised by reference in O(1). A replaced document is compared
+ * by content hash, with equals() only confirming a hash match, so writing back the same
+ * content (e.g. an autosave without edits) leaves the column out of the UPDATE
+ * (see @DynamicUpdate on the entity). The values cache their hash (ResumeDocument at
+ * construction, frozen maps on first use), so that comparison doesn't walk the document.
+ *
+ * Values must not be modified in place; set a new instance instead. Subclasses freeze
+ * values deeply, so an in-place edit anywhere in the tree fails instead of being silently
+ * lost. A mutable value the application sets is snapshotted as a frozen copy, so later
+ * edits to it are still seen as changes.
+ */
+public abstract class JsonbType<T> implements UserType<T> {
+
+    // Hibernate instantiates user types itself (no Spring injection). The column values are
+    // ResumeDocument, with its own codec, and plain maps, so nothing from the application's
+    // mapper configuration is needed here.
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Class<T> returnedClass;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    protected JsonbType(Class<T> returnedClass, ObjectReader reader, ObjectWriter writer) {
+        this.returnedClass = returnedClass;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    // Hook for subclasses to freeze a value deeply; must return already frozen values as they are
+    protected T immutable(T value) {
+        return value;
+    }
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.JSON;
+    }
+
+    @Override
+    public Class<T> returnedClass() {
+        return returnedClass;
+    }
+
+    @Override
+    public boolean equals(T x, T y) {
+        if (x == y) {
+            return true;
+        }
+        if (x == null || y == null) {
+            return false;
+        }
+        return x.hashCode() == y.hashCode() && x.equals(y);
+    }
+
+    @Override
+    public int hashCode(T x) {
+        return x.hashCode();
+    }
+
+    @Override
+    public T nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        String json = rs.getString(position);
+        return json == null ? null : read(json);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, T value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+        } else {
+            st.setObject(index, write(value), Types.OTHER);
+        }
+    }
+
+    @Override
+    public T deepCopy(T value) {
+        return value == null ? null : immutable(value);
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(T value) {
+        return value == null ? null : write(value);
+    }
+
+    @Override
+    public T assemble(Serializable cached, Object owner) {
+        return cached == null ? null : read((String) cached);
+    }
+
+    @Override
+    public T replace(T detached, T managed, Object owner) {
+        return detached;
+    }
+
+    private T read(String json) {
+        try {
+            return immutable(reader.readValue(json));
+        } catch (JsonProcessingException e) {
+            throw new HibernateException("Could not read " + returnedClass.getSimpleName() + " from jsonb", e);
+        }
+    }
+
+    private String write(T value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new HibernateException("Could not write " + returnedClass.getSimpleName() + " as jsonb", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.resai.model.type;
+
+import org.example.resai.model.resume.ResumeDocument;
+
+/** resumes.data; {@link ResumeDocument} freezes itself on construction. */
+public class ResumeDocumentType extends JsonbType<ResumeDocument> {
+
+    public ResumeDocumentType() {
+        super(ResumeDocument.class, MAPPER.readerFor(ResumeDocument.class), MAPPER.writerFor(ResumeDocument.class));
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.dto.AccessCodeSum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Plain JDBC access to access_codes for the set-based paths that JPA
+ * can't express efficiently (batch inserts, conditional updates, chunked purges)
+ * and for the dynamically filtered admin listing.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccessCodeJdbcRepo {
+
+    private static final String INSERT_IGNORING_CONFLICTS = """
+            INSERT INTO access_codes (code, duration_days, is_used, created_at, notes)
+            VALUES (?, ?, false, ?, ?)
+            ON CONFLICT (code) DO NOTHING
+            """;
+
+    // Claims the code and extends premium in one statement. The is_used = false guard
+    // makes concurrent redemptions of the same code serialize on the row lock: the
+    // loser re-checks the predicate after the winner commits and matches nothing.
+    // "Now" is bound from the application (the clock.now CTE): the columns are plain
+    // timestamps that User.isPremium() and the JPA paths compare with the JVM's clock,
+    // and the database's LOCALTIMESTAMP is only the same time if both share a time zone.
+    private static final String REDEEM_CODE = """
+            WITH clock AS (SELECT CAST(? AS timestamp) AS now),
+            redeemed AS (
+                UPDATE access_codes
+                SET is_used = true,
+                    used_by_user_id = ?,
+                    activated_at = clock.now,
+                    expires_at = clock.now + make_interval(days => duration_days)
+                FROM clock
+                WHERE code = ?
+                  AND is_used = false
+                  AND EXISTS (SELECT 1 FROM users WHERE id = ?)
+                RETURNING duration_days
+            )
+            UPDATE users u
+            SET premium_until = GREATEST(u.premium_until, clock.now) + make_interval(days => r.duration_days),
+                updated_at = clock.now
+            FROM redeemed r, clock
+            WHERE u.id = ?
+            RETURNING u.premium_until,
+                      u.premium_until - make_interval(days => r.duration_days) > clock.now AS was_premium
+            """;
+
+    private static final String DELETE_USED_EXPIRED_BEFORE = """
+            WITH old AS (
+                SELECT id FROM access_codes
+                WHERE is_used = true AND expires_at < ?
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            DELETE FROM access_codes a
+            USING old
+            WHERE a.id = old.id
+            RETURNING a.code
+            """;
+
+    private static final String SUMMARY_COLUMNS = """
+            SELECT ac.id, ac.code, ac.duration_days, ac.is_used, u.id AS used_by_user_id, u.email AS used_by_email,
+                   ac.created_at, ac.activated_at, ac.expires_at, ac.notes
+            FROM access_codes ac
+            LEFT JOIN users u ON u.id = ac.used_by_user_id
+            WHERE true
+            """;
+
+    // Sortable AccessCodeSum properties and their columns
+    private static final Map<String, String> SUMMARY_SORT_COLUMNS = Map.of(
+            "id", "ac.id",
+            "code", "ac.code",
+            "createdAt", "ac.created_at",
+            "activatedAt", "ac.activated_at",
+            "expiresAt", "ac.expires_at");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert candidate codes in one JDBC batch.
+     * Returns only the codes that were actually inserted; codes that collided
+     * with an existing row are skipped by ON CONFLICT and left out of the result.
+     * Relies on per-row update counts, so keep reWriteBatchedInserts off for this datasource.
+     */
+    public List<String> insertIgnoringConflicts(List<String> candidates, int durationDays, String notes) {
+        // created_at from the JVM clock, like AccessCode's @PrePersist
+        LocalDateTime createdAt = LocalDateTime.now();
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_IGNORING_CONFLICTS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, candidates.get(i));
+                ps.setInt(2, durationDays);
+                ps.setObject(3, createdAt);
+                ps.setString(4, notes);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return candidates.size();
+            }
+        });
+
+        List<String> inserted = new ArrayList<>(candidates.size());
+        for (int i = 0; i < counts.length; i++) {
+            // 0 means ON CONFLICT skipped the row
+            if (counts[i] != 0) {
+                inserted.add(candidates.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Atomically mark an unused code as used by the given user and extend their premium.
+     * Returns the new premium expiry (and whether premium was already active before),
+     * or empty if the code doesn't exist, was already
+     * used, or the user doesn't exist (in which case nothing is changed).
+     */
+    public Optional<Redemption> redeem(String code, Long userId) {
+        List<Redemption> result = jdbcTemplate.query(REDEEM_CODE,
+                (rs, rowNum) -> new Redemption(rs.getTimestamp(1).toLocalDateTime(), rs.getBoolean(2)),
+                LocalDateTime.now(), userId, code, userId, userId);
+        return result.stream().findFirst();
+    }
+
+    /**
+     * Delete up to limit redeemed codes whose premium period ended before the cutoff.
+     * Returns the deleted codes.
+     */
+    public List<String> deleteUsedExpiredBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(DELETE_USED_EXPIRED_BEFORE, String.class, cutoff, limit);
+    }
+
+    /**
+     * Page through codes without loading entities or their users.
+     *
+     * Only the filters that are set make it into the SQL, and the used flag is inlined as a
+     * literal: a catch-all "(? IS NULL OR is_used = ?)" predicate, or a generic plan for
+     * "is_used = ?", can never prove the WHERE clause of the partial indexes on is_used.
+     */
+    @Transactional(readOnly = true)
+    public Page<AccessCodeSum> findSummaries(Boolean used, LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                             Pageable pageable) {
+        StringBuilder where = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+
+        if (used != null) {
+            where.append(used ? " AND ac.is_used = true" : " AND ac.is_used = false");
+        }
+        if (createdAfter != null) {
+            where.append(" AND ac.created_at >= ?");
+            args.add(createdAfter);
+        }
+        if (createdBefore != null) {
+            where.append(" AND ac.created_at < ?");
+            args.add(createdBefore);
+        }
+
+        StringBuilder sql = new StringBuilder(SUMMARY_COLUMNS).append(where).append(orderBy(pageable.getSort()));
+        List<Object> pageArgs = new ArrayList<>(args);
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ? OFFSET ?");
+            pageArgs.add(pageable.getPageSize());
+            pageArgs.add(pageable.getOffset());
+        }
+
+        List<AccessCodeSum> content = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AccessCodeSum(
+                rs.getLong("id"),
+                rs.getString("code"),
+                rs.getInt("duration_days"),
+                rs.getBoolean("is_used"),
+                rs.getObject("used_by_user_id", Long.class),
+                rs.getString("used_by_email"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("activated_at")),
+                toLocalDateTime(rs.getTimestamp("expires_at")),
+                rs.getString("notes")), pageArgs.toArray());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM access_codes ac WHERE true" + where, Long.class, args.toArray()));
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SUMMARY_SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot sort access codes by " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orderBy.toString();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    public record Redemption(LocalDateTime premiumUntil, boolean wasPremium) {}
+}
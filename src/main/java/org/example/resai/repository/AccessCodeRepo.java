@@ -1,18 +1,26 @@
 package org.example.resai.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.resai.model.AccessCode;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+@Transactional(readOnly = true)
 public interface AccessCodeRepo extends JpaRepository<AccessCode, Long> {
 
     Optional<AccessCode> findByCode(String code);
 
+    List<AccessCode> findByCodeIn(Collection<String> codes);
+
     List<AccessCode> findByIsUsed(Boolean isUsed);
 
     @Query("SELECT ac FROM AccessCode ac WHERE ac.isUsed = true ORDER BY ac.activatedAt DESC")
@@ -21,12 +29,29 @@ public interface AccessCodeRepo extends JpaRepository<AccessCode, Long> {
     @Query("SELECT ac FROM AccessCode ac WHERE ac.isUsed = false ORDER BY ac.createdAt DESC")
     List<AccessCode> findUnusedCodesOrderByCreatedAtDesc();
 
-    @Query("SELECT COUNT(ac) FROM AccessCode ac WHERE ac.isUsed = false")
-    Long countUnusedCodes();
-
-    @Query("SELECT COUNT(ac) FROM AccessCode ac WHERE ac.isUsed = true")
-    Long countUsedCodes();
-
-    @Query("SELECT ac FROM AccessCode ac WHERE ac.createdAt >= :startDate")
-    List<AccessCode> findCodesCreatedAfter(@Param("startDate") LocalDateTime startDate);
-}
\ No newline at end of file
+    // Single pass over access_codes instead of one query per figure
+    @Query(value = """
+            SELECT COUNT(*) AS total,
+                   COUNT(*) FILTER (WHERE is_used) AS used,
+                   COUNT(*) FILTER (WHERE NOT is_used) AS unused,
+                   COUNT(*) FILTER (WHERE created_at >= :since) AS recent
+            FROM access_codes
+            """, nativeQuery = true)
+    StatsView aggregateStatistics(@Param("since") LocalDateTime since);
+
+    // Streamed with a fetch size so the whole table is never materialized (must run inside a transaction)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT ac.code FROM AccessCode ac")
+    Stream<String> streamAllCodes();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT ac.code FROM AccessCode ac WHERE ac.createdAt >= :since")
+    Stream<String> streamCodesCreatedSince(@Param("since") LocalDateTime since);
+
+    interface StatsView {
+        Long getTotal();
+        Long getUsed();
+        Long getUnused();
+        Long getRecent();
+    }
+}
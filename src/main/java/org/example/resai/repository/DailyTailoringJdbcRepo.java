@@ -0,0 +1,44 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-day tailoring counters (daily_tailorings), the durable source of the
+ * dashboard's tailorings series.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyTailoringJdbcRepo {
+
+    private static final String INCREMENT = """
+            INSERT INTO daily_tailorings (day, count)
+            VALUES (?, 1)
+            ON CONFLICT (day) DO UPDATE SET count = daily_tailorings.count + 1
+            """;
+
+    private static final String COUNT_PER_DAY_SINCE = "SELECT day, count FROM daily_tailorings WHERE day >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Count one tailoring on the given day. Call it last in the tailoring's transaction:
+     * the day's row stays locked until commit, and every tailoring that day needs it.
+     */
+    public void increment(LocalDate day) {
+        jdbcTemplate.update(INCREMENT, day);
+    }
+
+    public Map<LocalDate, Long> countPerDaySince(LocalDate since) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_PER_DAY_SINCE, rs -> {
+            counts.put(rs.getObject("day", LocalDate.class), rs.getLong("count"));
+        }, since);
+        return counts;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to idempotency_keys. Request-path calls are single autocommitted
+ * statements, so a claim is visible to other instances as soon as it's made.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyJdbcRepo {
+
+    // An existing row can only be taken over once it has expired, or when it is still
+    // IN_PROGRESS past its lease (the owning instance died mid-request) and the retry
+    // is for the same request. Otherwise the upsert changes nothing and returns 0.
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (user_id, idem_key, request_hash, status, locked_until, created_at, expires_at)
+            VALUES (?, ?, ?, 'IN_PROGRESS',
+                    LOCALTIMESTAMP + make_interval(secs => ?), LOCALTIMESTAMP, LOCALTIMESTAMP + make_interval(secs => ?))
+            ON CONFLICT (user_id, idem_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                status = 'IN_PROGRESS',
+                response_status = NULL,
+                content_type = NULL,
+                response_body = NULL,
+                locked_until = EXCLUDED.locked_until,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= LOCALTIMESTAMP
+               OR (idempotency_keys.status = 'IN_PROGRESS'
+                   AND idempotency_keys.locked_until <= LOCALTIMESTAMP
+                   AND idempotency_keys.request_hash = EXCLUDED.request_hash)
+            """;
+
+    private static final String FIND = """
+            SELECT request_hash, status = 'COMPLETED', locked_until <= LOCALTIMESTAMP,
+                   response_status, content_type, response_body
+            FROM idempotency_keys
+            WHERE user_id = ? AND idem_key = ? AND expires_at > LOCALTIMESTAMP
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE idempotency_keys
+            SET status = 'COMPLETED', response_status = ?, content_type = ?, response_body = ?, locked_until = NULL
+            WHERE user_id = ? AND idem_key = ? AND request_hash = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String RELEASE = """
+            DELETE FROM idempotency_keys
+            WHERE user_id = ? AND idem_key = ? AND request_hash = ? AND status = 'IN_PROGRESS'
+            """;
+
+    private static final String PURGE_EXPIRED = """
+            WITH expired AS (
+                SELECT user_id, idem_key FROM idempotency_keys
+                WHERE expires_at <= LOCALTIMESTAMP
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            DELETE FROM idempotency_keys k
+            USING expired e
+            WHERE k.user_id = e.user_id AND k.idem_key = e.idem_key
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Claim the key for a request about to run. Returns false if another request
+     * holds it or has already completed with it.
+     */
+    public boolean claim(Long userId, String key, byte[] requestHash, Duration lease, Duration ttl) {
+        return jdbcTemplate.update(CLAIM, userId, key, requestHash, seconds(lease), seconds(ttl)) == 1;
+    }
+
+    /**
+     * The unexpired record for the key, or empty if there is none.
+     */
+    public Optional<StoredKey> find(Long userId, String key) {
+        List<StoredKey> result = jdbcTemplate.query(FIND,
+                (rs, rowNum) -> new StoredKey(rs.getBytes(1), rs.getBoolean(2), rs.getBoolean(3),
+                        rs.getInt(4), rs.getString(5), rs.getBytes(6)),
+                userId, key);
+        return result.stream().findFirst();
+    }
+
+    /**
+     * Store the response of a claimed request so later retries can replay it.
+     */
+    public void complete(Long userId, String key, byte[] requestHash, int status, String contentType, byte[] body) {
+        jdbcTemplate.update(COMPLETE, status, contentType, body, userId, key, requestHash);
+    }
+
+    /**
+     * Give up a claim without storing anything, so a retry runs the request again.
+     */
+    public void release(Long userId, String key, byte[] requestHash) {
+        jdbcTemplate.update(RELEASE, userId, key, requestHash);
+    }
+
+    /**
+     * Delete up to limit expired keys; returns how many were deleted.
+     */
+    public int purgeExpired(int limit) {
+        return jdbcTemplate.update(PURGE_EXPIRED, limit);
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+
+    public record StoredKey(byte[] requestHash, boolean completed, boolean leaseExpired,
+                            int responseStatus, String contentType, byte[] responseBody) {}
+}
@@ -0,0 +1,67 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.dto.ResumeSum;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plain JDBC access to resumes for copies made entirely inside Postgres,
+ * so the jsonb document never travels to the application and back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResumeJdbcRepo {
+
+    // One row per generate_series value. A single copy is titled "<title> (copy)",
+    // N copies "<title> (copy 1)".."<title> (copy N)"; the source title is cut so the
+    // suffix always fits title's varchar(255). ai_metadata describes the source's
+    // tailoring history and is deliberately not carried over. Timestamps come from the
+    // JVM clock, like Resume's @PrePersist.
+    private static final String DUPLICATE = """
+            INSERT INTO resumes (user_id, title, data, version, language, created_at, updated_at)
+            SELECT r.user_id,
+                   left(r.title, 255 - length(c.suffix)) || c.suffix,
+                   r.data,
+                   1,
+                   r.language,
+                   CAST(? AS timestamp),
+                   CAST(? AS timestamp)
+            FROM resumes r
+            CROSS JOIN LATERAL (
+                SELECT n, CASE WHEN ? = 1 THEN ' (copy)' ELSE ' (copy ' || n || ')' END AS suffix
+                FROM generate_series(1, ?) AS n
+            ) c
+            WHERE r.id = ?
+              AND r.user_id = ?
+            ORDER BY c.n
+            RETURNING id, title, updated_at
+            """;
+
+    private static final RowMapper<ResumeSum> SUMMARY = (rs, rowNum) -> {
+        ResumeSum dto = new ResumeSum();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return dto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert {@code copies} copies of the user's resume in one statement.
+     * Returns the new rows in copy order, or an empty list if the resume doesn't
+     * exist or belongs to someone else (in which case nothing is inserted).
+     */
+    public List<ResumeSum> duplicate(Long id, Long userId, int copies) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ResumeSum> created = jdbcTemplate.query(DUPLICATE, SUMMARY, now, now, copies, copies, id, userId);
+        // Identity values follow insertion order; RETURNING itself promises no order
+        return created.stream().sorted(Comparator.comparing(ResumeSum::getId)).toList();
+    }
+}
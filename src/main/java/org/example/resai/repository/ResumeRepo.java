@@ -1,14 +1,22 @@
 package org.example.resai.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.resai.model.Resume;
 import org.example.resai.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+// Reads run read-only and so may be served by the replica (see ReadWriteRoutingDataSource)
+@Transactional(readOnly = true)
 public interface ResumeRepo extends JpaRepository<Resume, Long> {
 
     List<Resume> findByUser(User user);
@@ -24,4 +32,34 @@ public interface ResumeRepo extends JpaRepository<Resume, Long> {
     // FIX: explicitly declare correct JPQL (your method name stays the same)
     @Query("SELECT r FROM Resume r WHERE r.id = :id AND r.user.id = :userId")
     Optional<Resume> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Row lock for short read-check-write transactions (SELECT ... FOR UPDATE)
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Resume r WHERE r.id = :id AND r.user.id = :userId")
+    Optional<Resume> findByIdAndUserIdForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(r) FROM Resume r WHERE r.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    // Summary rows without the jsonb payloads; pg_column_size reports the stored (possibly compressed) size
+    @Query(value = """
+            SELECT r.id AS id, r.title AS title, r.version AS version, r.language AS language,
+                   r.updated_at AS updatedAt, pg_column_size(r.data) AS dataBytes
+            FROM resumes r
+            WHERE r.user_id = :userId
+            ORDER BY r.updated_at DESC, r.id DESC
+            """,
+            countQuery = "SELECT COUNT(*) FROM resumes WHERE user_id = :userId",
+            nativeQuery = true)
+    Page<SummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    interface SummaryView {
+        Long getId();
+        String getTitle();
+        Integer getVersion();
+        String getLanguage();
+        LocalDateTime getUpdatedAt();
+        Integer getDataBytes();
+    }
 }
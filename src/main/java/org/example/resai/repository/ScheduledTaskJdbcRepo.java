@@ -0,0 +1,110 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * scheduled_tasks rows and the advisory locks that elect a runner per task.
+ * Times are the database's LOCALTIMESTAMP, so instances with skewed clocks
+ * still agree on when a task is due.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScheduledTaskJdbcRepo {
+
+    // First key of the two-key advisory lock space, so task locks can't collide with
+    // locks taken elsewhere on the same database ("RSAI")
+    private static final int LOCK_NAMESPACE = 0x52534149;
+
+    private static final String REGISTER = """
+            INSERT INTO scheduled_tasks (name, next_run_at)
+            VALUES (?, LOCALTIMESTAMP)
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    private static final String IS_DUE = "SELECT next_run_at <= LOCALTIMESTAMP FROM scheduled_tasks WHERE name = ?";
+
+    private static final String FIND = "SELECT next_run_at, LOCALTIMESTAMP FROM scheduled_tasks WHERE name = ?";
+
+    private static final String MARK_STARTED = """
+            UPDATE scheduled_tasks SET last_started_at = LOCALTIMESTAMP, last_node = ? WHERE name = ?
+            """;
+
+    private static final String FINISH = """
+            UPDATE scheduled_tasks
+            SET next_run_at = ?,
+                last_finished_at = LOCALTIMESTAMP,
+                last_status = ?,
+                last_processed = ?,
+                last_error = ?
+            WHERE name = ?
+            """;
+
+    private static final String RESCHEDULE = "UPDATE scheduled_tasks SET next_run_at = ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void register(String name) {
+        jdbcTemplate.update(REGISTER, name);
+    }
+
+    public boolean isDue(String name) {
+        List<Boolean> due = jdbcTemplate.queryForList(IS_DUE, Boolean.class, name);
+        return !due.isEmpty() && Boolean.TRUE.equals(due.get(0));
+    }
+
+    /**
+     * The task's next slot together with the database's current time.
+     */
+    public Optional<Slot> find(String name) {
+        List<Slot> result = jdbcTemplate.query(FIND,
+                (rs, rowNum) -> new Slot(rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime()),
+                name);
+        return result.stream().findFirst();
+    }
+
+    public void markStarted(String name, String node) {
+        jdbcTemplate.update(MARK_STARTED, node, name);
+    }
+
+    public void finish(String name, LocalDateTime nextRunAt, String status, int processed, String error) {
+        jdbcTemplate.update(FINISH, nextRunAt, status, processed, error, name);
+    }
+
+    public void reschedule(String name, LocalDateTime nextRunAt) {
+        jdbcTemplate.update(RESCHEDULE, nextRunAt, name);
+    }
+
+    /**
+     * Session-level advisory lock for the task, held on the given connection until
+     * {@link #unlock} or until the connection closes (so a crashed runner frees it).
+     */
+    public boolean tryLock(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            ps.setInt(1, LOCK_NAMESPACE);
+            ps.setInt(2, name.hashCode());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    public void unlock(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")) {
+            ps.setInt(1, LOCK_NAMESPACE);
+            ps.setInt(2, name.hashCode());
+            ps.executeQuery().close();
+        }
+    }
+
+    public record Slot(LocalDateTime nextRunAt, LocalDateTime now) {}
+}
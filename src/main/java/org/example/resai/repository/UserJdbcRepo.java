@@ -0,0 +1,213 @@
+package org.example.resai.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.dto.AdminUserSum;
+import org.example.resai.security.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based updates and dynamically filtered queries on users, for admin bulk
+ * operations, the admin user list and scheduled maintenance.
+ * Every statement targets an explicit id array or a LIMIT, so callers control chunk
+ * size (and therefore how long row locks are held). The current time is bound from
+ * the JVM, whose clock User.isPremium() and the JPA paths compare these columns with.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepo {
+
+    // Maintenance chunks lock their rows with SKIP LOCKED: a row a request is updating
+    // right now is left for the next run instead of making the task wait behind it.
+    private static final String RESET_MONTHLY_LIMITS = """
+            WITH due AS (
+                SELECT id FROM users
+                WHERE last_reset_date IS NULL OR last_reset_date < ?
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE users u
+            SET tailoring_count = 0,
+                cover_letter_count = 0,
+                last_reset_date = ?,
+                updated_at = ?
+            FROM due
+            WHERE u.id = due.id
+            RETURNING u.id
+            """;
+
+    private static final String CLEAR_EXPIRED_PREMIUM = """
+            WITH expired AS (
+                SELECT id FROM users
+                WHERE premium_until <= ?
+                ORDER BY premium_until
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE users u
+            SET premium_until = NULL,
+                updated_at = ?
+            FROM expired
+            WHERE u.id = expired.id
+            RETURNING u.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Keyset page of the admin user list, newest first: pass the last id of the previous
+     * page as afterId. emailPattern is a lower-cased LIKE pattern, served by the
+     * text_pattern_ops (prefix) and pg_trgm (substring) indexes on lower(email).
+     *
+     * Only the filters that are set make it into the SQL. A catch-all "(? IS NULL OR ...)"
+     * predicate lets Postgres settle on a generic plan that can't use those indexes.
+     */
+    @Transactional(readOnly = true)
+    public List<AdminUserSum> findAdminPage(Long afterId, Role role, Boolean premium, String emailPattern, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, email, full_name, role, premium_until, created_at FROM users WHERE true");
+        List<Object> args = new ArrayList<>();
+
+        if (afterId != null) {
+            sql.append(" AND id < ?");
+            args.add(afterId);
+        }
+        if (role != null) {
+            sql.append(" AND role = ?");
+            args.add(role.name());
+        }
+        appendPremiumFilter(sql, args, premium);
+        if (emailPattern != null) {
+            sql.append(" AND lower(email) LIKE ? ESCAPE '\\'");
+            args.add(emailPattern);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AdminUserSum(
+                rs.getLong("id"),
+                rs.getString("email"),
+                rs.getString("full_name"),
+                rs.getString("role") == null ? null : Role.valueOf(rs.getString("role")),
+                toLocalDateTime(rs.getTimestamp("premium_until")),
+                toLocalDateTime(rs.getTimestamp("created_at"))), args.toArray());
+    }
+
+    /**
+     * Next chunk of user ids matching the filter, in id order after afterId
+     */
+    public List<Long> findIdsAfter(long afterId, Role role, Boolean premium, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id FROM users WHERE id > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+
+        if (role != null) {
+            sql.append(" AND role = ?");
+            args.add(role.name());
+        }
+        appendPremiumFilter(sql, args, premium);
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+
+    /**
+     * Extend premium by N days, starting from now for users without active premium
+     */
+    public int extendPremium(List<Long> ids, int days) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    UPDATE users
+                    SET premium_until = GREATEST(premium_until, CAST(? AS timestamp)) + make_interval(days => ?),
+                        updated_at = ?
+                    WHERE id = ANY(?)
+                    """);
+            LocalDateTime now = LocalDateTime.now();
+            ps.setObject(1, now);
+            ps.setInt(2, days);
+            ps.setObject(3, now);
+            ps.setArray(4, idArray(con, ids));
+            return ps;
+        });
+    }
+
+    public int revokePremium(List<Long> ids) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    UPDATE users
+                    SET premium_until = NULL,
+                        updated_at = ?
+                    WHERE id = ANY(?) AND premium_until IS NOT NULL
+                    """);
+            ps.setObject(1, LocalDateTime.now());
+            ps.setArray(2, idArray(con, ids));
+            return ps;
+        });
+    }
+
+    public int updateRole(List<Long> ids, Role role) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    UPDATE users
+                    SET role = ?,
+                        updated_at = ?
+                    WHERE id = ANY(?) AND role IS DISTINCT FROM ?
+                    """);
+            ps.setString(1, role.name());
+            ps.setObject(2, LocalDateTime.now());
+            ps.setArray(3, idArray(con, ids));
+            ps.setString(4, role.name());
+            return ps;
+        });
+    }
+
+    /**
+     * Zero the monthly counters of up to limit users last reset before this month.
+     * Returns the ids that were reset.
+     */
+    public List<Long> resetMonthlyLimits(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        return jdbcTemplate.queryForList(RESET_MONTHLY_LIMITS, Long.class, today.withDayOfMonth(1), limit, today, now);
+    }
+
+    /**
+     * Clear premium_until on up to limit users whose premium has run out, the same
+     * state revokePremium leaves behind. Returns the ids that were cleared.
+     */
+    public List<Long> clearExpiredPremium(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.queryForList(CLEAR_EXPIRED_PREMIUM, Long.class, now, limit, now);
+    }
+
+    private static void appendPremiumFilter(StringBuilder sql, List<Object> args, Boolean premium) {
+        if (Boolean.TRUE.equals(premium)) {
+            sql.append(" AND premium_until > ?");
+            args.add(LocalDateTime.now());
+        } else if (Boolean.FALSE.equals(premium)) {
+            sql.append(" AND (premium_until IS NULL OR premium_until <= ?)");
+            args.add(LocalDateTime.now());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private static Array idArray(Connection con, List<Long> ids) throws SQLException {
+        return con.createArrayOf("bigint", ids.toArray());
+    }
+}
@@ -4,14 +4,31 @@ import org.example.resai.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface UserRepo extends JpaRepository<User,Integer> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.premiumUntil > :now")
     Long countByPremiumUntilAfter(@Param("now") LocalDateTime now);
+
+    @Query(value = """
+            SELECT CAST(created_at AS date) AS day, COUNT(*) AS count
+            FROM users
+            WHERE created_at >= :since
+            GROUP BY CAST(created_at AS date)
+            """, nativeQuery = true)
+    List<DailyCountView> countSignupsPerDaySince(@Param("since") LocalDateTime since);
+
+    interface DailyCountView {
+        LocalDate getDay();
+        Long getCount();
+    }
 }
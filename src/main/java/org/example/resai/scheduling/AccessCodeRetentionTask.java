@@ -0,0 +1,66 @@
+package org.example.resai.scheduling;
+
+import org.example.resai.event.AccessCodesPurgedEvent;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.repository.AccessCodeJdbcRepo;
+import org.example.resai.service.AccessCodeFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes redeemed access codes once the premium they granted (expiresAt) ended
+ * more than the retention period ago. Unused codes are never touched. Nothing
+ * depends on running exactly daily, so slots missed during downtime are skipped.
+ */
+@Component
+public class AccessCodeRetentionTask implements ClusterTask {
+
+    private final AccessCodeJdbcRepo accessCodeJdbcRepo;
+    private final AccessCodeFilter accessCodeFilter;
+    private final InvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int retentionDays;
+
+    public AccessCodeRetentionTask(AccessCodeJdbcRepo accessCodeJdbcRepo,
+                                   AccessCodeFilter accessCodeFilter,
+                                   InvalidationBus invalidationBus,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${scheduler.tasks.access-code-retention.retention-days:365}") int retentionDays) {
+        this.accessCodeJdbcRepo = accessCodeJdbcRepo;
+        this.accessCodeFilter = accessCodeFilter;
+        this.invalidationBus = invalidationBus;
+        this.eventPublisher = eventPublisher;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public String name() {
+        return "access-code-retention";
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofDays(1);
+    }
+
+    @Override
+    public CatchUpPolicy catchUp() {
+        return CatchUpPolicy.SKIP;
+    }
+
+    @Override
+    public int runChunk(int limit) {
+        List<String> codes = accessCodeJdbcRepo.deleteUsedExpiredBefore(LocalDateTime.now().minusDays(retentionDays), limit);
+        if (!codes.isEmpty()) {
+            codes.forEach(accessCodeFilter::onDeleted);
+            invalidationBus.publish(InvalidationBus.ACCESS_CODES, codes);
+            eventPublisher.publishEvent(new AccessCodesPurgedEvent(codes.size()));
+        }
+        return codes.size();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.resai.scheduling;
+
+/**
+ * What a task does about schedule slots that passed while no instance was running it.
+ */
+public enum CatchUpPolicy {
+
+    /** Missed slots collapse into a single run as soon as an instance is up */
+    RUN_ONCE,
+
+    /** Missed slots are dropped and the task waits for its next regular slot */
+    SKIP
+}
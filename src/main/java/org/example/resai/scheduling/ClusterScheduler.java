@@ -0,0 +1,221 @@
+package org.example.resai.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.repository.ScheduledTaskJdbcRepo;
+import org.example.resai.repository.ScheduledTaskJdbcRepo.Slot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs ClusterTasks on exactly one instance per schedule slot. Every instance ticks;
+ * for each due task it tries pg_try_advisory_lock on a connection held for the run,
+ * and only the instance that gets the lock runs it. The lock is per session, so a
+ * runner that dies releases it with its connection.
+ *
+ * The schedule lives in scheduled_tasks, so slots missed while the whole cluster was
+ * down are noticed on the next tick and handled by the task's {@link CatchUpPolicy}.
+ * A run is bounded by scheduler.max-chunks-per-run; if that leaves work behind, the
+ * task stays due and continues on the next tick (possibly on another instance).
+ */
+@Slf4j
+@Component
+public class ClusterScheduler {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILURE = "FAILURE";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final List<ClusterTask> tasks;
+    private final ScheduledTaskJdbcRepo scheduledTaskJdbcRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final Environment environment;
+    private final MeterRegistry registry;
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    @Value("${scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${scheduler.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${scheduler.retry-delay-ms:300000}")
+    private long retryDelayMs;
+
+    public ClusterScheduler(List<ClusterTask> tasks,
+                            ScheduledTaskJdbcRepo scheduledTaskJdbcRepo,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            Environment environment,
+                            MeterRegistry registry) {
+        this.tasks = tasks;
+        this.scheduledTaskJdbcRepo = scheduledTaskJdbcRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.environment = environment;
+        this.registry = registry;
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.tick-ms:30000}", initialDelayString = "${scheduler.tick-ms:30000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        for (ClusterTask task : tasks) {
+            if (!isEnabled(task)) {
+                continue;
+            }
+            try {
+                // A new task is due right away
+                if (!registered.contains(task.name())) {
+                    scheduledTaskJdbcRepo.register(task.name());
+                    registered.add(task.name());
+                }
+                // Cheap unlocked check first, so idle ticks don't touch the lock
+                if (scheduledTaskJdbcRepo.isDue(task.name())) {
+                    runIfElected(task);
+                }
+            } catch (RuntimeException e) {
+                log.error("Scheduler could not run task {}", task.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Run the task if this instance wins its lock and it is still due once locked.
+     * Returns false if another instance holds the lock.
+     */
+    public boolean runIfElected(ClusterTask task) {
+        Boolean elected = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!scheduledTaskJdbcRepo.tryLock(connection, task.name())) {
+                return false;
+            }
+            try {
+                runLocked(task);
+            } finally {
+                scheduledTaskJdbcRepo.unlock(connection, task.name());
+            }
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(elected)) {
+            Counter.builder("scheduler.task.lock_contended")
+                    .description("Ticks where another instance held the task's lock")
+                    .tag("task", task.name())
+                    .register(registry)
+                    .increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void runLocked(ClusterTask task) {
+        String name = task.name();
+        Slot slot = scheduledTaskJdbcRepo.find(name).orElse(null);
+        // Another instance ran it between our due check and the lock
+        if (slot == null || slot.nextRunAt().isAfter(slot.now())) {
+            return;
+        }
+
+        Duration interval = interval(task);
+        long missed = Duration.between(slot.nextRunAt(), slot.now()).toMillis() / interval.toMillis();
+        LocalDateTime nextSlot = slot.nextRunAt().plus(interval.multipliedBy(missed + 1));
+
+        if (missed > 0) {
+            CatchUpPolicy policy = catchUp(task);
+            Counter.builder("scheduler.task.missed_slots")
+                    .description("Schedule slots that passed while no instance ran the task")
+                    .tag("task", name)
+                    .tag("policy", policy.name().toLowerCase())
+                    .register(registry)
+                    .increment(missed);
+            if (policy == CatchUpPolicy.SKIP) {
+                log.info("Task {} missed {} slots, skipping to {}", name, missed, nextSlot);
+                scheduledTaskJdbcRepo.reschedule(name, nextSlot);
+                return;
+            }
+            log.info("Task {} missed {} slots, catching up with one run", name, missed);
+        }
+
+        scheduledTaskJdbcRepo.markStarted(name, node);
+        long startNanos = System.nanoTime();
+        int processed = 0;
+        boolean drained = false;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun && !drained; chunk++) {
+                Integer done = chunkTransaction.execute(status -> task.runChunk(chunkSize));
+                int count = done == null ? 0 : done;
+                processed += count;
+                drained = count < chunkSize;
+            }
+
+            record(task, SUCCESS, startNanos, processed);
+            scheduledTaskJdbcRepo.finish(name, drained ? nextSlot : slot.now(), SUCCESS, processed, null);
+            if (processed > 0) {
+                log.info("Task {} processed {} rows in {} ms{}", name, processed,
+                        (System.nanoTime() - startNanos) / 1_000_000, drained ? "" : ", more left for the next tick");
+            }
+        } catch (RuntimeException e) {
+            record(task, FAILURE, startNanos, processed);
+            LocalDateTime retryAt = slot.now().plus(Duration.ofMillis(retryDelayMs));
+            scheduledTaskJdbcRepo.finish(name, retryAt.isBefore(nextSlot) ? retryAt : nextSlot,
+                    FAILURE, processed, truncate(e.toString()));
+            log.error("Task {} failed after processing {} rows", name, processed, e);
+        }
+    }
+
+    private void record(ClusterTask task, String outcome, long startNanos, int processed) {
+        Timer.builder("scheduler.task.run")
+                .description("Scheduled task runs on this instance")
+                .tag("task", task.name())
+                .tag("outcome", outcome.toLowerCase())
+                .register(registry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        Counter.builder("scheduler.task.processed")
+                .description("Rows processed by scheduled tasks on this instance")
+                .tag("task", task.name())
+                .register(registry)
+                .increment(processed);
+    }
+
+    private boolean isEnabled(ClusterTask task) {
+        return environment.getProperty(property(task, "enabled"), Boolean.class, true);
+    }
+
+    private Duration interval(ClusterTask task) {
+        Long intervalMs = environment.getProperty(property(task, "interval-ms"), Long.class);
+        return intervalMs != null ? Duration.ofMillis(intervalMs) : task.interval();
+    }
+
+    private CatchUpPolicy catchUp(ClusterTask task) {
+        return environment.getProperty(property(task, "catch-up"), CatchUpPolicy.class, task.catchUp());
+    }
+
+    private static String property(ClusterTask task, String key) {
+        return "scheduler.tasks." + task.name() + "." + key;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
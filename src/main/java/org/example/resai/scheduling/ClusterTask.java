@@ -0,0 +1,28 @@
+package org.example.resai.scheduling;
+
+import java.time.Duration;
+
+/**
+ * Recurring maintenance that must run on one instance at a time (see ClusterScheduler).
+ * Work is done in chunks, each in its own transaction, until a chunk comes back short.
+ *
+ * interval and catch-up policy can be overridden per task with
+ * scheduler.tasks.&lt;name&gt;.interval-ms / .catch-up, and a task switched off with .enabled.
+ */
+public interface ClusterTask {
+
+    String name();
+
+    Duration interval();
+
+    default CatchUpPolicy catchUp() {
+        return CatchUpPolicy.RUN_ONCE;
+    }
+
+    /**
+     * Process at most limit items in the caller's transaction and return how many
+     * were processed. Select work with FOR UPDATE SKIP LOCKED so rows busy elsewhere
+     * are left for a later chunk instead of blocking this one.
+     */
+    int runChunk(int limit);
+}
@@ -0,0 +1,38 @@
+package org.example.resai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.service.IdempotencyService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Deletes expired Idempotency-Key records. Lookups already ignore them, so this only
+ * reclaims space and missed slots can be skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurgeTask implements ClusterTask {
+
+    private final IdempotencyService idempotencyService;
+
+    @Override
+    public String name() {
+        return "idempotency-key-purge";
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofHours(1);
+    }
+
+    @Override
+    public CatchUpPolicy catchUp() {
+        return CatchUpPolicy.SKIP;
+    }
+
+    @Override
+    public int runChunk(int limit) {
+        return idempotencyService.purgeExpired(limit);
+    }
+}
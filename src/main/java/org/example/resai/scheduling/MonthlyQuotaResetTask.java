@@ -0,0 +1,40 @@
+package org.example.resai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.repository.UserJdbcRepo;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Zeroes the monthly tailoring / cover letter counters (what User.resetMonthlyLimits
+ * does for one user) for everyone not yet reset this month. Hourly, so counters
+ * restart within an hour of the month turning; anyone still due after downtime is
+ * picked up by the next run, so one catch-up run is enough.
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlyQuotaResetTask implements ClusterTask {
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final InvalidationBus invalidationBus;
+
+    @Override
+    public String name() {
+        return "monthly-quota-reset";
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofHours(1);
+    }
+
+    @Override
+    public int runChunk(int limit) {
+        List<Long> ids = userJdbcRepo.resetMonthlyLimits(limit);
+        invalidationBus.publish(InvalidationBus.USERS, ids.stream().map(String::valueOf).toList());
+        return ids.size();
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.resai.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import org.example.resai.event.UsersBulkUpdatedEvent;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.repository.UserJdbcRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Clears premium_until once it has passed. isPremium() already treats those users as
+ * free; this makes the stored state match and lets the dashboard's premium count
+ * (recounted on UsersBulkUpdatedEvent) follow expiries as they happen.
+ */
+@Component
+@RequiredArgsConstructor
+public class PremiumExpiryTask implements ClusterTask {
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final InvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "premium-expiry";
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofMinutes(5);
+    }
+
+    @Override
+    public int runChunk(int limit) {
+        List<Long> ids = userJdbcRepo.clearExpiredPremium(limit);
+        if (!ids.isEmpty()) {
+            invalidationBus.publish(InvalidationBus.USERS, ids.stream().map(String::valueOf).toList());
+            eventPublisher.publishEvent(new UsersBulkUpdatedEvent(name(), ids.size()));
+        }
+        return ids.size();
+    }
+}
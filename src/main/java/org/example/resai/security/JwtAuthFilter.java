@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.example.resai.model.User;
+import org.example.resai.tracing.RequestTracer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,10 +20,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final RequestTracer requestTracer;
 
-    public JwtAuthFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService, RequestTracer requestTracer) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.requestTracer = requestTracer;
     }
 
     @Override
@@ -36,12 +39,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             System.out.println(header);
             if (header != null && header.startsWith("Bearer ")) {
                 String token = header.substring(7).trim(); // remove "Bearer " and trim spaces
-                String email = jwtUtils.extractEmail(token);
+                String email = requestTracer.trace("jwt", () -> jwtUtils.extractEmail(token));
 
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    UserDetails userDetails = requestTracer.trace("user-lookup", () -> userDetailsService.loadUserByUsername(email));
 
-                    if (jwtUtils.isTokenValid(token, userDetails)) {
+                    if (requestTracer.trace("jwt", () -> jwtUtils.isTokenValid(token, userDetails))) {
                         UsernamePasswordAuthenticationToken auth =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
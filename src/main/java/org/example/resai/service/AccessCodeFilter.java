@@ -0,0 +1,298 @@
+package org.example.resai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.event.RemoteInvalidationEvent;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.repository.AccessCodeRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every issued access code.
+ * Lets activateCode reject guessed/invalid codes without a DB lookup.
+ * A "maybe present" answer always falls through to the database, so the
+ * filter can only save queries, never wrongly accept a code.
+ *
+ * Bloom filters can't remove entries: deleted codes stay "maybe present"
+ * until the next rebuild, which happens once deletions or growth past the
+ * sized capacity make the filter stale. Codes issued by other instances arrive
+ * over the invalidation bus when they commit; the periodic sync backs that up.
+ *
+ * Rebuilds and syncs read the primary: a lagging replica would miss fresh codes
+ * and the filter would then wrongly reject them. Codes added in the last
+ * SYNC_OVERLAP_MINUTES are also replayed into a rebuilt filter, since a code from
+ * a transaction that hadn't committed yet isn't in the rebuild's snapshot.
+ */
+@Slf4j
+@Component
+public class AccessCodeFilter {
+
+    private static final int MIN_CAPACITY = 10_000;
+    private static final double GROWTH_HEADROOM = 1.5;
+    private static final double MAX_STALE_RATIO = 0.1;
+    private static final int SYNC_OVERLAP_MINUTES = 5;
+
+    private final AccessCodeRepo accessCodeRepo;
+    private final Counter rejectedCounter;
+
+    @Value("${access-codes.filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-codes.filter.fpp:0.001}")
+    private double targetFpp;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    private volatile LocalDateTime lastSync;
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private final Queue<RecentAdd> recentAdds = new ConcurrentLinkedQueue<>();
+
+    public AccessCodeFilter(AccessCodeRepo accessCodeRepo, MeterRegistry meterRegistry) {
+        this.accessCodeRepo = accessCodeRepo;
+        this.rejectedCounter = Counter.builder("access_codes.filter.rejected")
+                .description("Activation attempts rejected by the filter without a DB lookup")
+                .register(meterRegistry);
+        Gauge.builder("access_codes.filter.memory", this, f -> f.current == null ? 0 : f.current.sizeInBytes())
+                .baseUnit("bytes")
+                .description("Heap used by the access code filter bit array")
+                .register(meterRegistry);
+        Gauge.builder("access_codes.filter.entries", this, f -> f.current == null ? 0 : f.current.entries())
+                .description("Codes inserted into the access code filter")
+                .register(meterRegistry);
+        Gauge.builder("access_codes.filter.fpp", this, f -> f.current == null ? 1.0 : f.current.expectedFpp())
+                .description("Estimated false-positive rate of the access code filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False means the code was definitely never issued.
+     * True means it may exist and must be checked against the database.
+     */
+    public boolean mightExist(String code) {
+        BloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return true;
+        }
+        if (filter.mightContain(code)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    // Order matters against rebuild(): record, then the filter being built, then current.
+    // An add that misses the replay still sees `building` or the swapped-in filter.
+    public void add(String code) {
+        if (enabled) {
+            recentAdds.add(new RecentAdd(code, System.nanoTime()));
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(code);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(code);
+        }
+    }
+
+    public void addAll(Collection<String> codes) {
+        codes.forEach(this::add);
+    }
+
+    public void onDeleted(String code) {
+        deletedSinceBuild.incrementAndGet();
+    }
+
+    /**
+     * Codes written on another instance. Adding a code that was redeemed or deleted
+     * there is harmless (it was already in the filter); a flush rebuilds.
+     */
+    @EventListener
+    @Transactional
+    public void on(RemoteInvalidationEvent event) {
+        if (!event.concerns(InvalidationBus.ACCESS_CODES)) {
+            return;
+        }
+        if (event.keys().isEmpty()) {
+            rebuild();
+        } else {
+            addAll(event.keys());
+        }
+    }
+
+    /**
+     * Rebuild from a streaming query, sized from the current code count.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        LocalDateTime syncPoint = LocalDateTime.now();
+        long count = accessCodeRepo.count();
+        long capacity = Math.max(MIN_CAPACITY, (long) (count * GROWTH_HEADROOM));
+
+        BloomFilter next = new BloomFilter(capacity, targetFpp);
+        building = next;
+        try (Stream<String> codes = accessCodeRepo.streamAllCodes()) {
+            codes.forEach(next::put);
+        }
+        pruneRecentAdds();
+        recentAdds.forEach(added -> next.put(added.code()));
+        current = next;
+        building = null;
+        lastSync = syncPoint;
+        deletedSinceBuild.set(0);
+
+        log.info("Access code filter rebuilt: {} codes, capacity {}, {} KB, est. fpp {} in {} ms",
+                next.entries(), capacity, next.sizeInBytes() / 1024,
+                String.format("%.5f", next.expectedFpp()),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Pick up codes issued by other instances, and rebuild once the filter is stale.
+     */
+    @Scheduled(fixedDelayString = "${access-codes.filter.sync-interval-ms:30000}")
+    @Transactional
+    public synchronized void refresh() {
+        BloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return;
+        }
+
+        boolean overCapacity = filter.entries() > filter.capacity();
+        boolean tooManyDeletes = deletedSinceBuild.get() > filter.capacity() * MAX_STALE_RATIO;
+        if (overCapacity || tooManyDeletes) {
+            rebuild();
+            return;
+        }
+
+        LocalDateTime syncPoint = LocalDateTime.now();
+        try (Stream<String> codes = accessCodeRepo.streamCodesCreatedSince(lastSync.minusMinutes(SYNC_OVERLAP_MINUTES))) {
+            codes.forEach(filter::put);
+        }
+        lastSync = syncPoint;
+        pruneRecentAdds();
+    }
+
+    // Older adds have committed or are picked up by the sync's overlap
+    private void pruneRecentAdds() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(SYNC_OVERLAP_MINUTES);
+        RecentAdd oldest;
+        while ((oldest = recentAdds.peek()) != null && oldest.addedAt() - cutoff < 0) {
+            recentAdds.poll();
+        }
+    }
+
+    private record RecentAdd(String code, long addedAt) {}
+
+    /**
+     * Thread-safe Bloom filter over an AtomicLongArray, using double hashing
+     * (h1 + i * h2) of a 64-bit FNV-1a hash.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+        private final long capacity;
+        private final AtomicLong entries = new AtomicLong();
+
+        BloomFilter(long capacity, double fpp) {
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.numBits = (long) words * 64;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            boolean changed = false;
+            for (int i = 1; i <= numHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = bits.get(word);
+                    if ((old & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, old, old | mask));
+                changed |= (old & mask) == 0;
+            }
+            // Re-inserting a known code (e.g. overlapping syncs) sets no new bits
+            if (changed) {
+                entries.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long entries() {
+            return entries.get();
+        }
+
+        long capacity() {
+            return capacity;
+        }
+
+        long sizeInBytes() {
+            return numBits / 8;
+        }
+
+        double expectedFpp() {
+            return Math.pow(1 - Math.exp(-numHashes * (double) entries.get() / numBits), numHashes);
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            // final avalanche so both 32-bit halves are well mixed
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
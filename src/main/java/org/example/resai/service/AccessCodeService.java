@@ -2,25 +2,44 @@ package org.example.resai.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.RandomStringUtils;
+import org.example.resai.dto.AccessCodeSum;
+import org.example.resai.event.AccessCodeDeletedEvent;
+import org.example.resai.event.AccessCodeRedeemedEvent;
+import org.example.resai.event.AccessCodesGeneratedEvent;
+import org.example.resai.invalidation.InvalidationBus;
 import org.example.resai.model.AccessCode;
-import org.example.resai.model.User;
+import org.example.resai.repository.AccessCodeJdbcRepo;
 import org.example.resai.repository.AccessCodeRepo;
-import org.example.resai.repository.UserRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AccessCodeService {
 
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_EMPTY_ROUNDS = 5;
+
     private final AccessCodeRepo accessCodeRepo;
-    private final UserRepo userRepo;
+    private final AccessCodeJdbcRepo accessCodeJdbcRepo;
+    private final AccessCodeFilter accessCodeFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
 
     /**
      * Generate a new access code
@@ -35,6 +54,9 @@ public class AccessCodeService {
         accessCode.setNotes(notes);
 
         AccessCode saved = accessCodeRepo.save(accessCode);
+        accessCodeFilter.add(code);
+        eventPublisher.publishEvent(new AccessCodesGeneratedEvent(1));
+        invalidationBus.publish(InvalidationBus.ACCESS_CODES, code);
         log.info("Generated access code: {} for {} days", code, durationDays);
 
         return saved;
@@ -43,65 +65,80 @@ public class AccessCodeService {
     /**
      * Generate multiple codes at once
      */
+    @Transactional
     public List<AccessCode> generateMultipleCodes(int count, int durationDays, String notes) {
-        List<AccessCode> codes = new java.util.ArrayList<>();
+        List<String> codes = new ArrayList<>(count);
+        generateCodesInBatches(count, durationDays, notes, codes::addAll);
 
-        for (int i = 0; i < count; i++) {
-            codes.add(generateCode(durationDays, notes));
+        log.info("Generated {} access codes", count);
+        return accessCodeRepo.findByCodeIn(codes);
+    }
+
+    /**
+     * Generate a large number of codes using batched inserts.
+     * Candidates are generated in memory and inserted with ON CONFLICT DO NOTHING,
+     * so only collisions are regenerated. Each inserted batch is handed to the
+     * consumer as soon as it is written, which lets callers stream the result.
+     */
+    public int generateCodesInBatches(int count, int durationDays, String notes, Consumer<List<String>> batchConsumer) {
+        int generated = 0;
+        int emptyRounds = 0;
+
+        while (generated < count) {
+            int batchSize = Math.min(INSERT_BATCH_SIZE, count - generated);
+            List<String> inserted = accessCodeJdbcRepo.insertIgnoringConflicts(
+                    newCandidates(batchSize), durationDays, notes);
+
+            if (inserted.isEmpty()) {
+                if (++emptyRounds >= MAX_EMPTY_ROUNDS) {
+                    throw new IllegalStateException("Could not generate unique codes after " + emptyRounds + " attempts");
+                }
+                continue;
+            }
+
+            emptyRounds = 0;
+            generated += inserted.size();
+            accessCodeFilter.addAll(inserted);
+            eventPublisher.publishEvent(new AccessCodesGeneratedEvent(inserted.size()));
+            invalidationBus.publish(InvalidationBus.ACCESS_CODES, inserted);
+            batchConsumer.accept(inserted);
+
+            if (inserted.size() < batchSize) {
+                log.debug("Regenerating {} colliding codes", batchSize - inserted.size());
+            }
         }
 
-        log.info("Generated {} access codes", count);
-        return codes;
+        log.info("Batch-generated {} access codes for {} days", generated, durationDays);
+        return generated;
     }
 
     /**
-     * Activate an access code for a user
+     * Activate an access code for a user.
+     * Runs as a single conditional UPDATE so concurrent redemptions of the
+     * same code succeed exactly once. Deliberately not @Transactional: the statement
+     * autocommits, and a code the filter rejects never opens a transaction or
+     * checks out a connection.
      */
-    @Transactional
     public boolean activateCode(String code, Long userId) {
-        Optional<AccessCode> codeOpt = accessCodeRepo.findByCode(code.toUpperCase());
+        String normalized = code.toUpperCase();
 
-        if (codeOpt.isEmpty()) {
-            log.warn("Access code not found: {}", code);
+        // Cheap in-memory rejection of codes that were never issued (guesses, typos)
+        if (!accessCodeFilter.mightExist(normalized)) {
+            log.debug("Access code rejected by filter: {}", code);
             return false;
         }
 
-        AccessCode accessCode = codeOpt.get();
+        Optional<AccessCodeJdbcRepo.Redemption> redemption = accessCodeJdbcRepo.redeem(normalized, userId);
 
-        if (accessCode.getIsUsed()) {
-            log.warn("Access code already used: {}", code);
+        if (redemption.isEmpty()) {
+            log.warn("Access code not found or already used: {} (user {})", code, userId);
             return false;
         }
 
-        Optional<User> userOpt = userRepo.findById(Math.toIntExact(userId));
-        if (userOpt.isEmpty()) {
-            log.warn("User not found: {}", userId);
-            return false;
-        }
-
-        User user = userOpt.get();
-
-        // Mark code as used
-        accessCode.setIsUsed(true);
-        accessCode.setUsedByUser(user);
-        accessCode.setActivatedAt(LocalDateTime.now());
-        accessCode.setExpiresAt(LocalDateTime.now().plusDays(accessCode.getDurationDays()));
-        accessCodeRepo.save(accessCode);
-
-        // Update user premium status
-        LocalDateTime newPremiumUntil;
-        if (user.getPremiumUntil() != null && user.getPremiumUntil().isAfter(LocalDateTime.now())) {
-            // Extend existing premium
-            newPremiumUntil = user.getPremiumUntil().plusDays(accessCode.getDurationDays());
-        } else {
-            // Start new premium
-            newPremiumUntil = LocalDateTime.now().plusDays(accessCode.getDurationDays());
-        }
-
-        user.setPremiumUntil(newPremiumUntil);
-        userRepo.save(user);
-
-        log.info("Activated code {} for user {} (premium until {})", code, userId, newPremiumUntil);
+        eventPublisher.publishEvent(new AccessCodeRedeemedEvent(normalized, userId, redemption.get().wasPremium()));
+        invalidationBus.publish(InvalidationBus.ACCESS_CODES, normalized);
+        invalidationBus.publish(InvalidationBus.USERS, userId);
+        log.info("Activated code {} for user {} (premium until {})", code, userId, redemption.get().premiumUntil());
         return true;
     }
 
@@ -145,6 +182,9 @@ public class AccessCodeService {
         }
 
         accessCodeRepo.delete(code);
+        accessCodeFilter.onDeleted(code.getCode());
+        eventPublisher.publishEvent(new AccessCodeDeletedEvent(code.getCode()));
+        invalidationBus.publish(InvalidationBus.ACCESS_CODES, code.getCode());
         log.info("Deleted unused code: {}", code.getCode());
         return true;
     }
@@ -153,15 +193,15 @@ public class AccessCodeService {
      * Get statistics
      */
     public CodeStatistics getStatistics() {
-        Long totalCodes = accessCodeRepo.count();
-        Long usedCodes = accessCodeRepo.countUsedCodes();
-        Long unusedCodes = accessCodeRepo.countUnusedCodes();
-
-        // Get codes created in last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<AccessCode> recentCodes = accessCodeRepo.findCodesCreatedAfter(thirtyDaysAgo);
+        AccessCodeRepo.StatsView stats = accessCodeRepo.aggregateStatistics(LocalDateTime.now().minusDays(30));
+        return new CodeStatistics(stats.getTotal(), stats.getUsed(), stats.getUnused(), stats.getRecent());
+    }
 
-        return new CodeStatistics(totalCodes, usedCodes, unusedCodes, (long) recentCodes.size());
+    /**
+     * Page through codes without loading entities or their users
+     */
+    public Page<AccessCodeSum> getCodePage(Boolean used, LocalDateTime createdAfter, LocalDateTime createdBefore, Pageable pageable) {
+        return accessCodeJdbcRepo.findSummaries(used, createdAfter, createdBefore, pageable);
     }
 
     /**
@@ -170,15 +210,32 @@ public class AccessCodeService {
     private String generateUniqueCode() {
         String code;
         do {
-            code = "RES-"
-                    + RandomStringUtils.randomAlphanumeric(4).toUpperCase()
-                    + "-"
-                    + RandomStringUtils.randomAlphanumeric(4).toUpperCase();
+            code = newCandidate();
         } while (accessCodeRepo.findByCode(code).isPresent());
 
         return code;
     }
 
+    /**
+     * Generate distinct candidate codes in memory (no DB round trips)
+     */
+    private List<String> newCandidates(int count) {
+        Set<String> candidates = new LinkedHashSet<>(count * 2);
+        while (candidates.size() < count) {
+            candidates.add(newCandidate());
+        }
+        return new ArrayList<>(candidates);
+    }
+
+    private String newCandidate() {
+        char[] chars = new char[13];
+        "RES-".getChars(0, 4, chars, 0);
+        for (int i = 4; i < 13; i++) {
+            chars[i] = i == 8 ? '-' : CODE_ALPHABET.charAt(RANDOM.nextInt(CODE_ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
     // Statistics DTO
     public record CodeStatistics(
             Long totalCodes,
@@ -0,0 +1,123 @@
+package org.example.resai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.dto.BulkUserReq;
+import org.example.resai.dto.BulkUserRes;
+import org.example.resai.event.UsersBulkUpdatedEvent;
+import org.example.resai.repository.UserJdbcRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+/**
+ * Admin bulk operations on users.
+ * Targets are processed in id-ordered chunks, each chunk a single set-based
+ * UPDATE in its own short transaction, so no lock is held for the whole cohort.
+ */
+@Slf4j
+@Service
+public class AdminUserService {
+
+    private final UserJdbcRepo userJdbcRepo;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${admin.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    public AdminUserService(UserJdbcRepo userJdbcRepo,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher) {
+        this.userJdbcRepo = userJdbcRepo;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BulkUserRes grantPremium(BulkUserReq request, int days) {
+        return run("grant-premium", request, null, ids -> userJdbcRepo.extendPremium(ids, days));
+    }
+
+    public BulkUserRes revokePremium(BulkUserReq request) {
+        return run("revoke-premium", request, null, userJdbcRepo::revokePremium);
+    }
+
+    /**
+     * The calling admin is never part of the cohort, so they can't demote themselves.
+     */
+    public BulkUserRes updateRole(BulkUserReq request, Long callerId) {
+        return run("role:" + request.getRole(), request, callerId, ids -> userJdbcRepo.updateRole(ids, request.getRole()));
+    }
+
+    /**
+     * Chunks commit one by one, so a failing chunk stops the run but leaves the earlier
+     * ones in place: the result then reports what was done and which chunk failed.
+     */
+    private BulkUserRes run(String operation, BulkUserReq request, Long excludedId, ToIntFunction<List<Long>> update) {
+        List<BulkUserRes.Chunk> chunks = new ArrayList<>();
+        int matched = 0;
+        int affected = 0;
+        Integer failedChunk = null;
+        String error = null;
+
+        try {
+            if (request.getIds() != null) {
+                TreeSet<Long> unique = new TreeSet<>(request.getIds());
+                if (excludedId != null) {
+                    unique.remove(excludedId);
+                }
+                List<Long> ids = new ArrayList<>(unique);
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                    BulkUserRes.Chunk result = runChunk(operation, chunks.size(), chunk, update);
+                    chunks.add(result);
+                    matched += result.size();
+                    affected += result.affected();
+                }
+            } else {
+                BulkUserReq.Filter filter = request.getFilter();
+                long afterId = 0;
+                while (true) {
+                    List<Long> page = userJdbcRepo.findIdsAfter(afterId, filter.getRole(), filter.getPremium(), chunkSize);
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    afterId = page.get(page.size() - 1);
+                    List<Long> chunk = excludedId == null ? page
+                            : page.stream().filter(id -> !id.equals(excludedId)).toList();
+                    if (chunk.isEmpty()) {
+                        continue;
+                    }
+                    BulkUserRes.Chunk result = runChunk(operation, chunks.size(), chunk, update);
+                    chunks.add(result);
+                    matched += result.size();
+                    affected += result.affected();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Also covers a failing id lookup, reported as the chunk it was fetching for
+            failedChunk = chunks.size();
+            error = e.getMessage();
+            log.error("Bulk {} failed at chunk {} after {} rows updated", operation, failedChunk, affected, e);
+        }
+
+        log.info("Bulk {} finished: {} matched, {} affected in {} chunks", operation, matched, affected, chunks.size());
+        eventPublisher.publishEvent(new UsersBulkUpdatedEvent(operation, affected));
+        return new BulkUserRes(operation, matched, affected, chunks, failedChunk, error);
+    }
+
+    private BulkUserRes.Chunk runChunk(String operation, int index, List<Long> ids, ToIntFunction<List<Long>> update) {
+        long start = System.nanoTime();
+        Integer affected = chunkTransaction.execute(status -> update.applyAsInt(ids));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Bulk {} chunk {}: {} ids, {} rows updated in {} ms", operation, index, ids.size(), affected, elapsedMs);
+        return new BulkUserRes.Chunk(index, ids.size(), affected == null ? 0 : affected, elapsedMs);
+    }
+}
@@ -1,31 +1,82 @@
 package org.example.resai.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.example.resai.concurrency.AdmissionRejectedException;
+import org.example.resai.concurrency.Bulkhead;
+import org.example.resai.mapper.ResumeJson;
+import org.example.resai.model.resume.Education;
+import org.example.resai.model.resume.Experience;
+import org.example.resai.model.resume.Project;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.tracing.RequestTracer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.BinaryOperator;
 
 @Service
 @RequiredArgsConstructor
 public class AiService {
 
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(5);
+
+    // ai.errors type tags. Provider error types come from the response body, so anything
+    // not listed here is counted as "other" to keep the tag's cardinality bounded.
+    private static final Set<String> ERROR_TYPES = Set.of(
+            "admission_rejected", "io_error", "invalid_response",
+            "invalid_request_error", "authentication_error", "permission_error", "not_found_error",
+            "rate_limit_error", "insufficient_quota", "tokens", "requests", "server_error", "api_error");
+
     private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry;
+    private final RequestTracer requestTracer;
+    private final Bulkhead aiBulkhead;
+    private final ResumeJson json;
 
     @Value("${openai.api.key}")
     private String openAiApiKey;
 
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+    // Any OpenAI-compatible endpoint; load tests point it at the fake server in src/loadtest
+    @Value("${openai.api.base-url:https://api.openai.com/v1}")
+    private String openAiBaseUrl;
+
+    /**
+     * Opens the provider connection (DNS, TLS handshake, keep-alive socket) and builds the
+     * request serializers ahead of the first real call. Goes around the bulkhead and the
+     * ai.* metrics; any HTTP response, even an error status, means the connection is up.
+     */
+    public void warmUp() {
+        prepareResumeTailoringMessage(new ResumeDocument(null, "warm-up", null, null, null, List.of("Java"), null), "warm-up", "en");
+
+        // Same JDK keep-alive and TLS session caches as restTemplate, but bounded so startup can't hang
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(WARM_UP_TIMEOUT);
+        requestFactory.setReadTimeout(WARM_UP_TIMEOUT);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(openAiApiKey);
+        try {
+            new RestTemplate(requestFactory).exchange(openAiBaseUrl + "/models", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        } catch (HttpStatusCodeException e) {
+            // Reached the provider; the status doesn't matter here
+        }
+    }
 
     /** * Generate professional summary based on user's description * NOW WITH LANGUAGE SUPPORT! */
     public String generateSummary(String userInput, String language) {
         String systemPrompt = getSystemPromptForSummary(language);
-        return callOpenAI(systemPrompt, userInput);
+        return callOpenAI("summary", language, systemPrompt, userInput);
     }
 
     /** * Generate experience bullets based on user's description * NOW WITH LANGUAGE SUPPORT! */
@@ -33,29 +84,37 @@ public class AiService {
         String role = context != null ? context.getOrDefault("role", "") : "";
         String company = context != null ? context.getOrDefault("company", "") : "";
         String systemPrompt = getSystemPromptForExperience(role, company, language);
-        return callOpenAI(systemPrompt, userInput);
+        return callOpenAI("experience", language, systemPrompt, userInput);
     }
 
     /** * Generate project bullets based on user's description * NOW WITH LANGUAGE SUPPORT! */
     public String generateProjectBullets(String userInput, Map<String, String> context, String language) {
         String projectTitle = context != null ? context.getOrDefault("projectTitle", "") : "";
         String systemPrompt = getSystemPromptForProject(projectTitle, language);
-        return callOpenAI(systemPrompt, userInput);
+        return callOpenAI("project", language, systemPrompt, userInput);
     }
 
     /** * Tailor resume data to match a specific job description * Returns the entire resume data structure with tailored content */
-    public Map<String, Object> tailorResume(Map<String, Object> resumeData, String jobDescription, String language) {
+    public ResumeDocument tailorResume(ResumeDocument resumeData, String jobDescription, String language) {
         try {
             String systemPrompt = getSystemPromptForTailoring(language);
             // Prepare the user message with resume data and job description
             String userMessage = prepareResumeTailoringMessage(resumeData, jobDescription, language);
             // Call OpenAI with structured output request
-            String aiResponse = callOpenAIForStructuredOutput(systemPrompt, userMessage);
+            String aiResponse = callOpenAIForStructuredOutput("tailor", language, systemPrompt, userMessage);
             // Parse the JSON response
-            Map<String, Object> tailoredData = objectMapper.readValue(aiResponse, Map.class);
+            ResumeDocument tailoredData;
+            try {
+                tailoredData = json.readData(aiResponse);
+            } catch (JsonProcessingException e) {
+                meterRegistry.counter("ai.tailor.parse.failures", "language", languageTag(language)).increment();
+                throw e;
+            }
             // Validate and enforce structure matches original
-            enforceResumeStructure(resumeData, tailoredData);
-            return tailoredData;
+            ResumeDocument parsed = tailoredData;
+            return requestTracer.trace("enforce-structure", () -> enforceResumeStructure(resumeData, parsed));
+        } catch (AdmissionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to tailor resume: " + e.getMessage());
@@ -63,11 +122,13 @@ public class AiService {
     }
 
     /** * Generate a cover letter based on resume and job description */
-    public String generateCoverLetter(Map<String, Object> resumeData, String jobDescription, String language) {
+    public String generateCoverLetter(ResumeDocument resumeData, String jobDescription, String language) {
         try {
             String systemPrompt = getSystemPromptForCoverLetter(language);
             String userMessage = prepareCoverLetterMessage(resumeData, jobDescription, language);
-            return callOpenAI(systemPrompt, userMessage);
+            return callOpenAI("cover-letter", language, systemPrompt, userMessage);
+        } catch (AdmissionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to generate cover letter: " + e.getMessage());
@@ -256,9 +317,10 @@ public class AiService {
         }
     }
 
-    private String prepareResumeTailoringMessage(Map<String, Object> resumeData, String jobDescription, String language) {
+    // Package-private so the JMH benchmarks (src/jmh) can call it directly
+    String prepareResumeTailoringMessage(ResumeDocument resumeData, String jobDescription, String language) {
         try {
-            String resumeJson = objectMapper.writeValueAsString(resumeData);
+            String resumeJson = json.writeData(resumeData);
             if ("fr".equalsIgnoreCase(language)) {
                 return String.format("""
                         CV ACTUEL (JSON): %s
@@ -277,9 +339,9 @@ public class AiService {
         }
     }
 
-    private String prepareCoverLetterMessage(Map<String, Object> resumeData, String jobDescription, String language) {
+    private String prepareCoverLetterMessage(ResumeDocument resumeData, String jobDescription, String language) {
         try {
-            String resumeJson = objectMapper.writeValueAsString(resumeData);
+            String resumeJson = json.writeData(resumeData);
             if ("fr".equalsIgnoreCase(language)) {
                 return String.format("""
                         CV DU CANDIDAT (JSON): %s
@@ -299,12 +361,8 @@ public class AiService {
     }
 
     /** * Call OpenAI API with system prompt and user input */
-    private String callOpenAI(String systemPrompt, String userInput) {
+    private String callOpenAI(String operation, String language, String systemPrompt, String userInput) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openAiApiKey);
-
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", "gpt-4o-mini");
             requestBody.put("messages", List.of(
@@ -314,34 +372,9 @@ public class AiService {
             requestBody.put("temperature", 0.7);
             requestBody.put("max_tokens", 1500);
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    OPENAI_API_URL, HttpMethod.POST, entity, String.class
-            );
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-
-            // Check for API error
-            if (root.has("error")) {
-                String errorType = root.path("error").path("type").asText("unknown");
-                String errorMsg = root.path("error").path("message").asText("No details provided");
-                throw new RuntimeException("OpenAI API error (" + errorType + "): " + errorMsg);
-            }
-
-            // Validate choices structure
-            JsonNode choices = root.path("choices");
-            if (choices.isMissingNode() || !choices.isArray() || choices.size() == 0) {
-                throw new RuntimeException("OpenAI response missing valid 'choices' array");
-            }
-
-            JsonNode choice = choices.get(0);
-            JsonNode message = choice.path("message");
-            if (message.isMissingNode()) {
-                throw new RuntimeException("OpenAI response missing 'message' in choice");
-            }
-
-            String content = message.path("content").asText("");
-            return content.trim();
+            return sendChatCompletion(operation, language, requestBody);
+        } catch (AdmissionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to call OpenAI API: " + e.getMessage());
@@ -349,12 +382,8 @@ public class AiService {
     }
 
     /** * Call OpenAI API for structured JSON output (used for resume tailoring) */
-    private String callOpenAIForStructuredOutput(String systemPrompt, String userInput) {
+    private String callOpenAIForStructuredOutput(String operation, String language, String systemPrompt, String userInput) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openAiApiKey);
-
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("model", "gpt-4o-mini");
             requestBody.put("messages", List.of(
@@ -365,65 +394,179 @@ public class AiService {
             requestBody.put("max_tokens", 3000);
             requestBody.put("response_format", Map.of("type", "json_object"));
 
+            return sendChatCompletion(operation, language, requestBody);
+        } catch (AdmissionRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to call OpenAI API for structured output: " + e.getMessage());
+        }
+    }
+
+    /**
+     * POST a chat completion request and return the first choice's content.
+     * Records latency (ai.request), token usage (ai.tokens) and provider errors (ai.errors)
+     * tagged by operation and language.
+     */
+    private String sendChatCompletion(String operation, String language, Map<String, Object> requestBody) throws Exception {
+        String lang = languageTag(language);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(openAiApiKey);
+
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    OPENAI_API_URL, HttpMethod.POST, entity, String.class
-            );
+            ResponseEntity<String> response;
+            try {
+                response = aiBulkhead.call(() -> requestTracer.trace("openai",
+                        () -> restTemplate.exchange(openAiBaseUrl + "/chat/completions", HttpMethod.POST, entity, String.class)));
+            } catch (AdmissionRejectedException e) {
+                recordError(operation, lang, "admission_rejected");
+                throw e;
+            } catch (HttpStatusCodeException e) {
+                recordError(operation, lang, providerErrorType(e));
+                throw e;
+            } catch (ResourceAccessException e) {
+                recordError(operation, lang, "io_error");
+                throw e;
+            }
 
-            JsonNode root = objectMapper.readTree(response.getBody());
+            JsonNode root = json.readTree(response.getBody());
 
             // Check for API error
             if (root.has("error")) {
                 String errorType = root.path("error").path("type").asText("unknown");
                 String errorMsg = root.path("error").path("message").asText("No details provided");
+                recordError(operation, lang, errorType);
                 throw new RuntimeException("OpenAI API error (" + errorType + "): " + errorMsg);
             }
 
+            recordUsage(operation, lang, root.path("usage"));
+
             // Validate choices structure
             JsonNode choices = root.path("choices");
             if (choices.isMissingNode() || !choices.isArray() || choices.size() == 0) {
+                recordError(operation, lang, "invalid_response");
                 throw new RuntimeException("OpenAI response missing valid 'choices' array");
             }
 
             JsonNode choice = choices.get(0);
             JsonNode message = choice.path("message");
             if (message.isMissingNode()) {
+                recordError(operation, lang, "invalid_response");
                 throw new RuntimeException("OpenAI response missing 'message' in choice");
             }
 
             String content = message.path("content").asText("");
+            outcome = "success";
             return content.trim();
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to call OpenAI API for structured output: " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("ai.request")
+                    .description("Latency of OpenAI chat completion calls")
+                    .tags("operation", operation, "language", lang, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
 
+    private void recordUsage(String operation, String language, JsonNode usage) {
+        if (usage.isMissingNode()) {
+            return;
+        }
+        recordTokens(operation, language, "prompt", usage.path("prompt_tokens"));
+        recordTokens(operation, language, "completion", usage.path("completion_tokens"));
+        recordTokens(operation, language, "total", usage.path("total_tokens"));
+    }
+
+    private void recordTokens(String operation, String language, String type, JsonNode value) {
+        if (value.isNumber()) {
+            DistributionSummary.builder("ai.tokens")
+                    .description("Tokens reported in the OpenAI usage block")
+                    .baseUnit("tokens")
+                    .tags("operation", operation, "language", language, "type", type)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(value.asLong());
+        }
+    }
+
+    private void recordError(String operation, String language, String type) {
+        meterRegistry.counter("ai.errors", "operation", operation, "language", language, "type", errorTypeTag(type))
+                .increment();
+    }
+
+    private static String errorTypeTag(String type) {
+        if (ERROR_TYPES.contains(type) || type.matches("http_[1-5]\\d\\d")) {
+            return type;
+        }
+        return "other";
+    }
+
+    // Prefer the provider's error.type from the body (e.g. insufficient_quota), else the HTTP status
+    private String providerErrorType(HttpStatusCodeException e) {
+        try {
+            JsonNode type = json.readTree(e.getResponseBodyAsString()).path("error").path("type");
+            if (type.isTextual() && !type.asText().isBlank()) {
+                return type.asText();
+            }
+        } catch (Exception ignored) {
+            // fall through to the status code
+        }
+        return "http_" + e.getStatusCode().value();
+    }
+
+    // Keep tag cardinality bounded to the languages we support
+    private static String languageTag(String language) {
+        return "fr".equalsIgnoreCase(language) ? "fr" : "en";
+    }
+
     /**
-     * Enforce that tailoredData has the same top-level keys as original resumeData.
-     * Add missing keys with defaults (e.g., empty list for arrays), remove extras.
-     * Special: Always copy 'skills' from original unchanged.
+     * Holds the model's output to the original document: sections the original doesn't have
+     * are dropped, missing ones are restored, and entries are matched to the original's by
+     * position. Facts are always taken from the original (contact details, employers, roles,
+     * dates, schools, degrees, project names, links and technologies, and the whole 'skills'
+     * section), so only the wording (summary, bullets, unknown fields) comes from the model.
      */
-    private void enforceResumeStructure(Map<String, Object> original, Map<String, Object> tailored) {
-        Set<String> originalKeys = original.keySet();
-        // Remove any extra keys added by AI
-        tailored.entrySet().removeIf(entry -> !originalKeys.contains(entry.getKey()));
-        // Add back any missing keys with safe defaults
-        for (String key : originalKeys) {
-            if (!tailored.containsKey(key)) {
-                Object originalValue = original.get(key);
-                if (originalValue instanceof List) {
-                    tailored.put(key, new ArrayList<>());  // Empty list for arrays like skills
-                } else if (originalValue instanceof Map) {
-                    tailored.put(key, new HashMap<>());  // Empty map for objects
-                } else {
-                    tailored.put(key, "");  // Default to empty string for scalars
-                }
-            }
+    ResumeDocument enforceResumeStructure(ResumeDocument original, ResumeDocument tailored) {
+        return new ResumeDocument(
+                original.personalInfo(),
+                original.summary() != null && tailored.summary() != null ? tailored.summary() : original.summary(),
+                matchEntries(original.experience(), tailored.experience(), (o, t) -> new Experience(
+                        o.company(), o.role(), o.location(), o.startDate(), o.endDate(),
+                        o.bullets() != null && t.bullets() != null ? t.bullets() : o.bullets(),
+                        matchExtra(o.extra(), t.extra()))),
+                matchEntries(original.projects(), tailored.projects(), (o, t) -> new Project(
+                        o.title(), o.technologies(), o.link(),
+                        o.bullets() != null && t.bullets() != null ? t.bullets() : o.bullets(),
+                        matchExtra(o.extra(), t.extra()))),
+                matchEntries(original.education(), tailored.education(), (o, t) -> new Education(
+                        o.school(), o.degree(), o.startDate(), o.endDate(), matchExtra(o.extra(), t.extra()))),
+                original.skills(),
+                matchExtra(original.extra(), tailored.extra()));
+    }
+
+    private static <T> List<T> matchEntries(List<T> original, List<T> tailored, BinaryOperator<T> merge) {
+        if (original == null) {
+            return null;
+        }
+        List<T> result = new ArrayList<>(original.size());
+        for (int i = 0; i < original.size(); i++) {
+            T entry = original.get(i);
+            T candidate = tailored != null && i < tailored.size() ? tailored.get(i) : null;
+            result.add(entry == null || candidate == null ? entry : merge.apply(entry, candidate));
         }
-        // Special handling: Always overwrite 'skills' with original to ensure no changes
-        if (original.containsKey("skills")) {
-            tailored.put("skills", original.get("skills"));
+        return Collections.unmodifiableList(result);
+    }
+
+    // Unknown fields: the original's keys, with the model's value where it kept the key
+    private static Map<String, Object> matchExtra(Map<String, Object> original, Map<String, Object> tailored) {
+        if (original.isEmpty()) {
+            return original;
         }
+        Map<String, Object> result = new LinkedHashMap<>();
+        original.forEach((key, value) -> result.put(key, tailored.containsKey(key) ? tailored.get(key) : value));
+        return Collections.unmodifiableMap(result);
     }
-}
\ No newline at end of file
+}
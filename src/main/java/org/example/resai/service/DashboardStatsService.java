@@ -0,0 +1,332 @@
+package org.example.resai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.event.AccessCodeDeletedEvent;
+import org.example.resai.event.AccessCodeRedeemedEvent;
+import org.example.resai.event.AccessCodesPurgedEvent;
+import org.example.resai.event.AccessCodesGeneratedEvent;
+import org.example.resai.event.PremiumChangedEvent;
+import org.example.resai.event.RemoteInvalidationEvent;
+import org.example.resai.event.ResumeCreatedEvent;
+import org.example.resai.event.ResumeDeletedEvent;
+import org.example.resai.event.ResumeTailoredEvent;
+import org.example.resai.event.UserSignedUpEvent;
+import org.example.resai.event.UsersBulkUpdatedEvent;
+import org.example.resai.invalidation.InvalidationBus;
+import org.example.resai.repository.AccessCodeRepo;
+import org.example.resai.repository.DailyTailoringJdbcRepo;
+import org.example.resai.repository.ResumeRepo;
+import org.example.resai.repository.UserRepo;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed admin dashboard metrics.
+ * Counters are moved by domain events after commit, so reading them costs no
+ * queries. Each node also queues the deltas its own events caused and sends them
+ * to the other instances as one message per admin.stats.remote-sync-interval-ms,
+ * which apply them as they are. Only a gap in those messages (the listener
+ * reconnected) triggers an early recount. A periodic reconciliation recounts from
+ * the database to correct any other drift (missed events).
+ *
+ * Tailorings per day are recounted from daily_tailorings, which each tailoring
+ * bumps in its own write transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+
+    private static final int SERIES_DAYS = 90;
+    private static final int RECENT_CODE_DAYS = 30;
+
+    // Figures in delta messages ("figure=delta"); the series add "@yyyy-MM-dd" for the day
+    private static final String USERS = "users";
+    private static final String PREMIUM = "premium";
+    private static final String RESUMES = "resumes";
+    private static final String CODES = "codes";
+    private static final String USED_CODES = "used-codes";
+    private static final String RECENT_CODES = "recent-codes";
+    private static final String SIGNUPS = "signups";
+    private static final String TAILORINGS = "tailorings";
+
+    private final UserRepo userRepo;
+    private final ResumeRepo resumeRepo;
+    private final AccessCodeRepo accessCodeRepo;
+    private final DailyTailoringJdbcRepo dailyTailoringJdbcRepo;
+    private final InvalidationBus invalidationBus;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong premiumUsers = new AtomicLong();
+    private final AtomicLong totalResumes = new AtomicLong();
+    private final AtomicLong totalCodes = new AtomicLong();
+    private final AtomicLong usedCodes = new AtomicLong();
+    private final AtomicLong recentCodes = new AtomicLong();
+    // Replaced wholesale by reconcile(), so readers never see a half-built series
+    private volatile ConcurrentMap<LocalDate, AtomicLong> signupsPerDay = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<LocalDate, AtomicLong> tailoringsPerDay = new ConcurrentHashMap<>();
+    // Deltas from this node's events not yet sent to the other instances
+    private final ConcurrentMap<String, Long> outgoing = new ConcurrentHashMap<>();
+    private final AtomicBoolean missedRemoteChanges = new AtomicBoolean();
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardStats getStats() {
+        long users = totalUsers.get();
+        long premium = premiumUsers.get();
+        long codes = totalCodes.get();
+        long used = usedCodes.get();
+        return new DashboardStats(users, premium, users - premium, totalResumes.get(),
+                codes, used, codes - used, recentCodes.get(), reconciledAt);
+    }
+
+    /**
+     * Daily signups and tailorings for the last N days (oldest first)
+     */
+    public List<DailyPoint> getSeries(int days) {
+        LocalDate today = LocalDate.now();
+        int n = Math.min(days, SERIES_DAYS);
+        ConcurrentMap<LocalDate, AtomicLong> signups = signupsPerDay;
+        ConcurrentMap<LocalDate, AtomicLong> tailorings = tailoringsPerDay;
+        List<DailyPoint> series = new ArrayList<>(n);
+        for (int i = n - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            series.add(new DailyPoint(day, valueOf(signups, day), valueOf(tailorings, day)));
+        }
+        return series;
+    }
+
+    // ============ EVENT HANDLERS ============
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UserSignedUpEvent event) {
+        record(USERS, 1);
+        record(daily(SIGNUPS, LocalDate.now()), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ResumeCreatedEvent event) {
+        record(RESUMES, 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ResumeDeletedEvent event) {
+        record(RESUMES, -1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(ResumeTailoredEvent event) {
+        record(daily(TAILORINGS, LocalDate.now()), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(AccessCodesGeneratedEvent event) {
+        record(CODES, event.count());
+        record(RECENT_CODES, event.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(AccessCodeDeletedEvent event) {
+        record(CODES, -1);
+    }
+
+    // Purged codes were used ones past retention; recount rather than track which,
+    // and pass the correction on to the other instances
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(AccessCodesPurgedEvent event) {
+        AccessCodeRepo.StatsView codeStats = countCodes(LocalDateTime.now());
+        queue(CODES, codeStats.getTotal() - totalCodes.getAndSet(codeStats.getTotal()));
+        queue(USED_CODES, codeStats.getUsed() - usedCodes.getAndSet(codeStats.getUsed()));
+        queue(RECENT_CODES, codeStats.getRecent() - recentCodes.getAndSet(codeStats.getRecent()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(AccessCodeRedeemedEvent event) {
+        record(USED_CODES, 1);
+        if (!event.wasPremium()) {
+            record(PREMIUM, 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(PremiumChangedEvent event) {
+        if (event.isPremium() && !event.wasPremium()) {
+            record(PREMIUM, 1);
+        } else if (!event.isPremium() && event.wasPremium()) {
+            record(PREMIUM, -1);
+        }
+    }
+
+    // Bulk changes don't say who was premium before, so recount just that figure
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(UsersBulkUpdatedEvent event) {
+        if (event.affected() > 0) {
+            long premium = userRepo.countByPremiumUntilAfter(LocalDateTime.now());
+            queue(PREMIUM, premium - premiumUsers.getAndSet(premium));
+        }
+    }
+
+    /**
+     * Deltas sent by the other instances. No keys means messages were missed, so
+     * the next sync recounts instead.
+     */
+    @EventListener
+    public void on(RemoteInvalidationEvent event) {
+        if (!event.concerns(InvalidationBus.DASHBOARD_STATS)) {
+            return;
+        }
+        if (event.keys().isEmpty()) {
+            missedRemoteChanges.set(true);
+            return;
+        }
+        for (String key : event.keys()) {
+            int separator = key.lastIndexOf('=');
+            try {
+                apply(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed dashboard delta {}", key);
+            }
+        }
+    }
+
+    // ============ SYNC ============
+
+    /**
+     * Send the deltas queued since the last run to the other instances, as one message
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.remote-sync-interval-ms:5000}")
+    public void publishDeltas() {
+        List<String> keys = new ArrayList<>();
+        for (String figure : outgoing.keySet()) {
+            Long delta = outgoing.remove(figure);
+            if (delta != null && delta != 0) {
+                keys.add(figure + "=" + delta);
+            }
+        }
+        invalidationBus.publish(InvalidationBus.DASHBOARD_STATS, keys);
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.remote-sync-interval-ms:5000}")
+    @Transactional(readOnly = true)
+    public void reconcileMissedChanges() {
+        if (missedRemoteChanges.getAndSet(false)) {
+            reconcile();
+        }
+    }
+
+    // ============ RECONCILIATION ============
+
+    /**
+     * Recount everything from the database. Runs at startup and then periodically,
+     * instead of on every dashboard request.
+     */
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+
+        totalUsers.set(userRepo.count());
+        premiumUsers.set(userRepo.countByPremiumUntilAfter(now));
+        totalResumes.set(resumeRepo.count());
+
+        recountCodes(now);
+
+        LocalDate firstDay = now.toLocalDate().minusDays(SERIES_DAYS - 1);
+        ConcurrentMap<LocalDate, AtomicLong> signups = new ConcurrentHashMap<>();
+        for (UserRepo.DailyCountView row : userRepo.countSignupsPerDaySince(firstDay.atStartOfDay())) {
+            signups.put(row.getDay(), new AtomicLong(row.getCount()));
+        }
+        signupsPerDay = signups;
+        ConcurrentMap<LocalDate, AtomicLong> tailorings = new ConcurrentHashMap<>();
+        dailyTailoringJdbcRepo.countPerDaySince(firstDay).forEach((day, count) -> tailorings.put(day, new AtomicLong(count)));
+        tailoringsPerDay = tailorings;
+
+        reconciledAt = now;
+        log.debug("Dashboard stats reconciled: {} users, {} resumes, {} codes",
+                totalUsers.get(), totalResumes.get(), totalCodes.get());
+    }
+
+    private void recountCodes(LocalDateTime now) {
+        AccessCodeRepo.StatsView codeStats = countCodes(now);
+        totalCodes.set(codeStats.getTotal());
+        usedCodes.set(codeStats.getUsed());
+        recentCodes.set(codeStats.getRecent());
+    }
+
+    private AccessCodeRepo.StatsView countCodes(LocalDateTime now) {
+        return accessCodeRepo.aggregateStatistics(now.minusDays(RECENT_CODE_DAYS));
+    }
+
+    // Apply a change from this node's own events and queue it for the other instances
+    private void record(String figure, long delta) {
+        apply(figure, delta);
+        queue(figure, delta);
+    }
+
+    private void queue(String figure, long delta) {
+        if (delta != 0) {
+            outgoing.merge(figure, delta, Long::sum);
+        }
+    }
+
+    private void apply(String figure, long delta) {
+        int at = figure.indexOf('@');
+        if (at >= 0) {
+            LocalDate day = LocalDate.parse(figure.substring(at + 1));
+            switch (figure.substring(0, at)) {
+                case SIGNUPS -> add(signupsPerDay, day, delta);
+                case TAILORINGS -> add(tailoringsPerDay, day, delta);
+                default -> log.debug("Unknown dashboard series {}", figure);
+            }
+            return;
+        }
+        switch (figure) {
+            case USERS -> totalUsers.addAndGet(delta);
+            case PREMIUM -> premiumUsers.addAndGet(delta);
+            case RESUMES -> totalResumes.addAndGet(delta);
+            case CODES -> totalCodes.addAndGet(delta);
+            case USED_CODES -> usedCodes.addAndGet(delta);
+            case RECENT_CODES -> recentCodes.addAndGet(delta);
+            default -> log.debug("Unknown dashboard figure {}", figure);
+        }
+    }
+
+    private static String daily(String series, LocalDate day) {
+        return series + "@" + day;
+    }
+
+    private static void add(ConcurrentMap<LocalDate, AtomicLong> series, LocalDate day, long delta) {
+        series.computeIfAbsent(day, d -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static long valueOf(ConcurrentMap<LocalDate, AtomicLong> series, LocalDate day) {
+        AtomicLong value = series.get(day);
+        return value == null ? 0 : value.get();
+    }
+
+    public record DashboardStats(
+            long totalUsers,
+            long premiumUsers,
+            long freeUsers,
+            long totalResumes,
+            long totalCodes,
+            long usedCodes,
+            long unusedCodes,
+            long recentCodes,
+            LocalDateTime reconciledAt
+    ) {}
+
+    public record DailyPoint(LocalDate date, long signups, long tailorings) {}
+}
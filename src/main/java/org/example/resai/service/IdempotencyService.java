@@ -0,0 +1,113 @@
+package org.example.resai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.resai.repository.IdempotencyKeyJdbcRepo;
+import org.example.resai.repository.IdempotencyKeyJdbcRepo.StoredKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key bookkeeping for the AI endpoints. A key is scoped to the user and
+ * bound to a hash of the first request that used it: the first request runs, retries
+ * of it replay the stored response, a duplicate arriving while it still runs waits
+ * for it, and the same key with a different request is refused.
+ *
+ * State lives in Postgres so retries landing on another instance behave the same.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final long MIN_POLL_MS = 50;
+    private static final long MAX_POLL_MS = 500;
+
+    public enum Outcome { EXECUTE, REPLAY, MISMATCH, IN_PROGRESS }
+
+    /**
+     * What to do with a request. {@code stored} is set for REPLAY only.
+     */
+    public record Decision(Outcome outcome, StoredKey stored) {}
+
+    private final IdempotencyKeyJdbcRepo idempotencyKeyJdbcRepo;
+    private final Duration lease;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    public IdempotencyService(IdempotencyKeyJdbcRepo idempotencyKeyJdbcRepo,
+                              MeterRegistry registry,
+                              @Value("${idempotency.lease-ms:300000}") long leaseMs,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.wait-timeout-ms:120000}") long waitTimeoutMs) {
+        this.idempotencyKeyJdbcRepo = idempotencyKeyJdbcRepo;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("idempotency.requests")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .description("Requests carrying an Idempotency-Key, by how they were handled")
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Claim the key for this request, or wait for whoever holds it.
+     * EXECUTE obliges the caller to finish with {@link #complete} or {@link #release}.
+     */
+    public Decision begin(Long userId, String key, byte[] requestHash) throws InterruptedException {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pollMs = MIN_POLL_MS;
+
+        while (true) {
+            if (idempotencyKeyJdbcRepo.claim(userId, key, requestHash, lease, ttl)) {
+                return decide(Outcome.EXECUTE, null);
+            }
+
+            // Empty when the row expired or was released since the claim: just claim again
+            Optional<StoredKey> existing = idempotencyKeyJdbcRepo.find(userId, key);
+            if (existing.isPresent()) {
+                StoredKey stored = existing.get();
+                if (!Arrays.equals(stored.requestHash(), requestHash)) {
+                    return decide(Outcome.MISMATCH, null);
+                }
+                if (stored.completed()) {
+                    return decide(Outcome.REPLAY, stored);
+                }
+                if (!stored.leaseExpired()) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        return decide(Outcome.IN_PROGRESS, null);
+                    }
+                    Thread.sleep(pollMs);
+                    pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+                }
+            }
+        }
+    }
+
+    public void complete(Long userId, String key, byte[] requestHash, int status, String contentType, byte[] body) {
+        idempotencyKeyJdbcRepo.complete(userId, key, requestHash, status, contentType, body);
+    }
+
+    public void release(Long userId, String key, byte[] requestHash) {
+        idempotencyKeyJdbcRepo.release(userId, key, requestHash);
+    }
+
+    /**
+     * Delete one chunk of expired keys (run by IdempotencyKeyPurgeTask).
+     */
+    public int purgeExpired(int limit) {
+        return idempotencyKeyJdbcRepo.purgeExpired(limit);
+    }
+
+    private Decision decide(Outcome outcome, StoredKey stored) {
+        outcomes.get(outcome).increment();
+        return new Decision(outcome, stored);
+    }
+}
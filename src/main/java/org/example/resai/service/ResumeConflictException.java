@@ -0,0 +1,28 @@
+package org.example.resai.service;
+
+import org.example.resai.model.resume.ResumeDocument;
+
+/**
+ * The resume was edited while a tailoring was in flight, so the tailored
+ * content was not saved. Carries the tailored data so the client can still
+ * offer it to the user instead of paying for another AI call.
+ */
+public class ResumeConflictException extends RuntimeException {
+
+    private final int currentVersion;
+    private final ResumeDocument tailoredData;
+
+    public ResumeConflictException(Long resumeId, int baseVersion, int currentVersion, ResumeDocument tailoredData) {
+        super("Resume " + resumeId + " was edited during tailoring (version " + baseVersion + " -> " + currentVersion + ")");
+        this.currentVersion = currentVersion;
+        this.tailoredData = tailoredData;
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    public ResumeDocument getTailoredData() {
+        return tailoredData;
+    }
+}
@@ -5,18 +5,31 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.resai.dto.ResumeReq;
 import org.example.resai.dto.ResumeRes;
 import org.example.resai.dto.ResumeSum;
+import org.example.resai.event.ResumeCreatedEvent;
+import org.example.resai.event.ResumeDeletedEvent;
+import org.example.resai.event.ResumeTailoredEvent;
+import org.example.resai.invalidation.InvalidationBus;
 import org.example.resai.mapper.ResumeMapper;
 import org.example.resai.model.Resume;
 import org.example.resai.model.User;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.repository.DailyTailoringJdbcRepo;
+import org.example.resai.repository.ResumeJdbcRepo;
 import org.example.resai.repository.ResumeRepo;
+import org.example.resai.tracing.RequestTracer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Slf4j
@@ -28,6 +41,15 @@ public class ResumeService {
     private final ResumeRepo resumeRepo;
     private final ResumeMapper resumeMapper;
     private final AiService aiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestTracer requestTracer;
+    private final TransactionTemplate transactionTemplate;
+    private final ResumeJdbcRepo resumeJdbcRepo;
+    private final DailyTailoringJdbcRepo dailyTailoringJdbcRepo;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${resumes.duplicate.max-copies:20}")
+    private int maxCopies;
 
     // ===== EXISTING METHODS =====
 
@@ -40,6 +62,8 @@ public class ResumeService {
         resume.setUser(user);
 
         Resume saved = resumeRepo.save(resume);
+        eventPublisher.publishEvent(new ResumeCreatedEvent(saved.getId(), user.getId()));
+        invalidationBus.publish(InvalidationBus.RESUMES, saved.getId());
         return resumeMapper.toResponseDTO(saved);
     }
 
@@ -68,9 +92,9 @@ public class ResumeService {
     }
 
     @Transactional
-    @SuppressWarnings("unchecked")
-    public Resume updateResume(Long id, Long userId, Map<String, Object> payload) {
-        Optional<Resume> existingResume = resumeRepo.findByIdAndUserId(id, userId);
+    public Resume updateResume(Long id, Long userId, ResumeReq payload) {
+        // Locked read so an edit and a finishing tailoring can't both build on the same version
+        Optional<Resume> existingResume = resumeRepo.findByIdAndUserIdForUpdate(id, userId);
 
         if (existingResume.isEmpty()) {
             return null;
@@ -80,32 +104,25 @@ public class ResumeService {
 
         try {
             // Update title if provided
-            if (payload.containsKey("title")) {
-                String title = (String) payload.get("title");
-                if (title != null && !title.trim().isEmpty()) {
-                    resume.setTitle(title);
-                }
+            String title = payload.getTitle();
+            if (title != null && !title.trim().isEmpty()) {
+                resume.setTitle(title);
             }
 
             // Update data if provided
-            if (payload.containsKey("data")) {
-                Object dataObj = payload.get("data");
-                if (dataObj instanceof Map) {
-                    resume.setData((Map<String, Object>) dataObj);
-                }
+            if (payload.getData() != null) {
+                resume.setData(payload.getData());
             }
 
             // Update aiMetadata if provided
-            if (payload.containsKey("aiMetadata") && payload.get("aiMetadata") != null) {
-                Object metadataObj = payload.get("aiMetadata");
-                if (metadataObj instanceof Map) {
-                    resume.setAiMetadata((Map<String, Object>) metadataObj);
-                }
+            if (payload.getAiMetadata() != null) {
+                resume.setAiMetadata(payload.getAiMetadata());
             }
 
             // Increment version
             resume.setVersion(resume.getVersion() + 1);
 
+            // No invalidation: nothing caches resume content, and autosave is the hottest write
             return resumeRepo.save(resume);
         } catch (Exception e) {
             log.error("Failed to update resume: {}", e.getMessage());
@@ -113,6 +130,23 @@ public class ResumeService {
         }
     }
 
+    /**
+     * Copy a resume server-side: data, language and a suffixed title are copied
+     * by Postgres, the copies start at version 1. Returns the new resumes, or an
+     * empty list if the resume doesn't exist or isn't the user's.
+     */
+    @Transactional
+    public List<ResumeSum> duplicateResume(Long id, Long userId, int copies) {
+        if (copies < 1 || copies > maxCopies) {
+            throw new IllegalArgumentException("Number of copies must be between 1 and " + maxCopies);
+        }
+
+        List<ResumeSum> created = resumeJdbcRepo.duplicate(id, userId, copies);
+        created.forEach(copy -> eventPublisher.publishEvent(new ResumeCreatedEvent(copy.getId(), userId)));
+        invalidationBus.publish(InvalidationBus.RESUMES, created.stream().map(copy -> String.valueOf(copy.getId())).toList());
+        return created;
+    }
+
     @Transactional
     public boolean deleteResume(Long id, Long userId) {
         Optional<Resume> resume = resumeRepo.findByIdAndUserId(id, userId);
@@ -122,6 +156,8 @@ public class ResumeService {
         }
 
         resumeRepo.delete(resume.get());
+        eventPublisher.publishEvent(new ResumeDeletedEvent(id, userId));
+        invalidationBus.publish(InvalidationBus.RESUMES, id);
         return true;
     }
 
@@ -130,17 +166,21 @@ public class ResumeService {
     /**
      * Tailor resume to match job description using AI
      * NOW WITH LANGUAGE SUPPORT (English/French)
+     *
+     * Runs in three phases so no DB connection is held during the multi-second AI call:
+     * a short read, the AI call outside any transaction, and a short write that
+     * re-reads the row under lock and only applies the result if the resume
+     * wasn't edited in between (see ResumeConflictException).
      */
-    @Transactional
-    public Resume tailorResume(Long resumeId, Long userId, String jobDescription) {
+    public ResumeRes tailorResume(Long resumeId, Long userId, String jobDescription) {
         log.info("Tailoring resume {} for user {}", resumeId, userId);
 
-        // Find and validate resume
-        Resume resume = resumeRepo.findByIdAndUserId(resumeId, userId)
+        // Phase 1: read (own read-only transaction, connection released on return)
+        Resume resume = requestTracer.trace("resume-lookup", () -> resumeRepo.findByIdAndUserId(resumeId, userId))
                 .orElseThrow(() -> new RuntimeException("Resume not found or unauthorized"));
 
         // Get current resume data
-        Map<String, Object> currentData = resume.getData();
+        ResumeDocument currentData = resume.getData();
 
         if (currentData == null || currentData.isEmpty()) {
             throw new RuntimeException("Resume has no data to tailor");
@@ -151,40 +191,50 @@ public class ResumeService {
         if (language == null || language.trim().isEmpty()) {
             language = "en";
         }
+        int baseVersion = resume.getVersion();
 
         log.info("Tailoring resume in language: {}", language);
 
-        // Call AI service to tailor the resume WITH LANGUAGE
-        Map<String, Object> tailoredData = aiService.tailorResume(currentData, jobDescription, language);
+        // Phase 2: AI call WITH LANGUAGE, no transaction and no connection
+        ResumeDocument tailoredData = aiService.tailorResume(currentData, jobDescription, language);
+
+        // Phase 3: write
+        String tailoredLanguage = language;
+        Resume saved = requestTracer.trace("db-write", () -> transactionTemplate.execute(status ->
+                applyTailoring(resumeId, userId, baseVersion, currentData, tailoredData, jobDescription, tailoredLanguage)));
+        eventPublisher.publishEvent(new ResumeTailoredEvent(resumeId, userId));
+        log.info("Resume {} tailored successfully in language: {}", resumeId, language);
+
+        return resumeMapper.toResponseDTO(saved);
+    }
+
+    private Resume applyTailoring(Long resumeId, Long userId, int baseVersion, ResumeDocument baseData,
+                                  ResumeDocument tailoredData, String jobDescription, String language) {
+        Resume resume = resumeRepo.findByIdAndUserIdForUpdate(resumeId, userId)
+                .orElseThrow(() -> new RuntimeException("Resume not found or unauthorized"));
 
-        // 🔥 FIX: Force Hibernate to detect the change
-        // Set to null first to break the reference
-        resume.setData(null);
+        // Autosave bumps the version even when nothing changed, so only a real content change is a conflict
+        if (resume.getVersion() != baseVersion && !Objects.equals(resume.getData(), baseData)) {
+            log.info("Resume {} changed during tailoring (version {} -> {}), not applying", resumeId, baseVersion, resume.getVersion());
+            throw new ResumeConflictException(resumeId, baseVersion, resume.getVersion(), tailoredData);
+        }
 
-        // Create a new HashMap to ensure different object reference
-        Map<String, Object> newData = new HashMap<>(tailoredData);
-        resume.setData(newData);
+        resume.setData(tailoredData);
 
         resume.setVersion(resume.getVersion() + 1);
         resume.setUpdatedAt(LocalDateTime.now());
 
         // Store metadata about the tailoring
-        Map<String, Object> metadata = resume.getAiMetadata();
-        if (metadata == null) {
-            metadata = new HashMap<>();
-        }
+        Map<String, Object> metadata = resume.getAiMetadata() != null ? new HashMap<>(resume.getAiMetadata()) : new HashMap<>();
         metadata.put("lastTailoredAt", LocalDateTime.now().toString());
         metadata.put("tailoredFor", jobDescription.substring(0, Math.min(200, jobDescription.length())) + "...");
         metadata.put("tailoredLanguage", language);
+        resume.setAiMetadata(metadata);
 
-        // 🔥 FIX: Same for metadata to ensure it updates
-        resume.setAiMetadata(null);
-        Map<String, Object> newMetadata = new HashMap<>(metadata);
-        resume.setAiMetadata(newMetadata);
-
-        Resume saved = resumeRepo.save(resume);
-        log.info("Resume {} tailored successfully in language: {}", resumeId, language);
-
+        Resume saved = resumeRepo.saveAndFlush(resume);
+        invalidationBus.publish(InvalidationBus.RESUMES, resumeId);
+        // Last, so the day's counter row is locked only until the commit that follows
+        dailyTailoringJdbcRepo.increment(LocalDate.now());
         return saved;
     }
 
@@ -199,7 +249,7 @@ public class ResumeService {
         Resume resume = resumeRepo.findByIdAndUserId(resumeId, userId)
                 .orElseThrow(() -> new RuntimeException("Resume not found or unauthorized"));
 
-        Map<String, Object> resumeData = resume.getData();
+        ResumeDocument resumeData = resume.getData();
 
         if (resumeData == null || resumeData.isEmpty()) {
             throw new RuntimeException("Resume has no data to generate cover letter");
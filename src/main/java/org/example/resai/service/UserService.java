@@ -3,12 +3,15 @@ package org.example.resai.service;
 import org.example.resai.dto.LoginReq;
 import org.example.resai.dto.LoginRes;
 import org.example.resai.dto.SignupReq;
+import org.example.resai.event.UserSignedUpEvent;
 import org.example.resai.model.User;
 import org.example.resai.repository.UserRepo;
 import org.example.resai.security.JwtUtils;
 import org.example.resai.security.Role;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -18,11 +21,13 @@ public class UserService {
     private final UserRepo userRepo;
     private final BCryptPasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepo userRepo, JwtUtils jwtUtils) {
+    public UserService(UserRepo userRepo, JwtUtils jwtUtils, ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
         this.passwordEncoder = new BCryptPasswordEncoder();
         this.jwtUtils = jwtUtils;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -44,9 +49,13 @@ public class UserService {
         user.setProfilePicture(null);
 
         // 3️⃣ Save to DB
-        return userRepo.save(user);
+        User saved = userRepo.save(user);
+        eventPublisher.publishEvent(new UserSignedUpEvent(saved.getId(), saved.getCreatedAt()));
+        return saved;
     }
 
+    // Primary, not replica: logging in right after signing up must find the new account
+    @Transactional
     public LoginRes login(LoginReq loginReq) {
         Optional<User> user = Optional.ofNullable(userRepo.findByEmail(loginReq.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials")));
@@ -0,0 +1,80 @@
+package org.example.resai.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures what a scale-from-zero user actually waits for: the time from JVM start
+ * (and from readiness) until the first non-probe request has been served. Exported as
+ * startup.first_request next to Boot's application.started.time / application.ready.time.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final AtomicBoolean served = new AtomicBoolean();
+    private final AtomicLong sinceJvmStartMs = new AtomicLong(-1);
+    private final AtomicLong sinceReadyMs = new AtomicLong(-1);
+    private volatile long readyAtMs;
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("startup.first_request", sinceJvmStartMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time until the first user request was served, from JVM start or readiness (-1 until then)")
+                .tag("since", "jvm_start")
+                .register(meterRegistry);
+        TimeGauge.builder("startup.first_request", sinceReadyMs, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time until the first user request was served, from JVM start or readiness (-1 until then)")
+                .tag("since", "ready")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyAtMs = System.currentTimeMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks and scrapes aren't user traffic; once measured, stay out of the way
+        return served.get() || request.getRequestURI().startsWith("/actuator") || "/ping".equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.currentTimeMillis();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (served.compareAndSet(false, true)) {
+                long now = System.currentTimeMillis();
+                sinceJvmStartMs.set(now - ManagementFactory.getRuntimeMXBean().getStartTime());
+                if (readyAtMs > 0) {
+                    sinceReadyMs.set(now - readyAtMs);
+                }
+                log.info("First request {} {} served in {} ms, {} ms after JVM start ({} ms after ready)",
+                        request.getMethod(), request.getRequestURI(), now - start, sinceJvmStartMs.get(), sinceReadyMs.get());
+            }
+        }
+    }
+}
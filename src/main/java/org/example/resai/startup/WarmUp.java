@@ -0,0 +1,127 @@
+package org.example.resai.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.resai.dto.AdminUserSum;
+import org.example.resai.dto.LoginRes;
+import org.example.resai.dto.ResumeReq;
+import org.example.resai.dto.ResumeRes;
+import org.example.resai.dto.ResumeSum;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.repository.AccessCodeRepo;
+import org.example.resai.repository.ResumeRepo;
+import org.example.resai.repository.UserRepo;
+import org.example.resai.security.JwtUtils;
+import org.example.resai.security.Role;
+import org.example.resai.service.AiService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pays the first-use costs before the instance reports ready, instead of on the
+ * first user's request: pool connections and Hibernate query plans, JJWT's
+ * signer/parser, Jackson serializers for the hot DTOs, and the connection (DNS,
+ * TLS handshake, keep-alive socket) to the AI provider.
+ *
+ * Runs as an ApplicationRunner, i.e. after the context has started (and after a
+ * CRaC restore) but before the readiness state switches to ACCEPTING_TRAFFIC.
+ * A failing step is logged and skipped; warm-up never blocks startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUp implements ApplicationRunner {
+
+    private static final String EMAIL = "warm-up@resai.invalid";
+
+    private final UserRepo userRepo;
+    private final ResumeRepo resumeRepo;
+    private final AccessCodeRepo accessCodeRepo;
+    private final JwtUtils jwtUtils;
+    private final ObjectMapper objectMapper;
+    private final AiService aiService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${warmup.ai-client.enabled:true}")
+    private boolean warmAiClient;
+
+    public WarmUp(UserRepo userRepo, ResumeRepo resumeRepo, AccessCodeRepo accessCodeRepo, JwtUtils jwtUtils,
+                  ObjectMapper objectMapper, AiService aiService, MeterRegistry meterRegistry) {
+        this.userRepo = userRepo;
+        this.resumeRepo = resumeRepo;
+        this.accessCodeRepo = accessCodeRepo;
+        this.jwtUtils = jwtUtils;
+        this.objectMapper = objectMapper;
+        this.aiService = aiService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+
+        step("database", () -> {
+            // Read-only repository calls: borrow from the pool(s) and compile the hot queries
+            userRepo.findByEmail(EMAIL);
+            resumeRepo.findByIdAndUserId(-1L, -1L);
+            resumeRepo.findSummariesByUserId(-1L, PageRequest.of(0, 20));
+            accessCodeRepo.findByCode("WARM-UP");
+        });
+
+        step("jwt", () -> jwtUtils.extractEmail(jwtUtils.generateToken(EMAIL)));
+
+        step("jackson", () -> {
+            ResumeRes resume = new ResumeRes();
+            resume.setId(0L);
+            resume.setTitle("Warm-up");
+            resume.setData(new ResumeDocument(null, "warm-up", null, null, null, List.of("Java"), null));
+            resume.setVersion(1);
+            resume.setLanguage("en");
+            resume.setCreatedAt(LocalDateTime.now());
+            resume.setUpdatedAt(LocalDateTime.now());
+            objectMapper.writeValueAsString(resume);
+            objectMapper.writeValueAsString(List.of(new ResumeSum()));
+            objectMapper.writeValueAsString(new LoginRes("token", EMAIL, Role.USER));
+            objectMapper.writeValueAsString(List.of(new AdminUserSum(0L, EMAIL, null, Role.USER, null, LocalDateTime.now())));
+            objectMapper.readValue("{\"title\":\"Warm-up\",\"data\":{\"summary\":\"warm-up\"}}", ResumeReq.class);
+        });
+
+        if (warmAiClient) {
+            step("ai-client", aiService::warmUp);
+        }
+
+        log.info("Warm-up finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void step(String name, WarmUpStep work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } catch (Exception e) {
+            log.warn("Warm-up step {} failed, continuing: {}", name, e.getMessage());
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Timer.builder("startup.warmup")
+                    .description("Time spent in each warm-up step before readiness")
+                    .tag("step", name)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            log.debug("Warm-up step {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmUpStep {
+        void run() throws Exception;
+    }
+}
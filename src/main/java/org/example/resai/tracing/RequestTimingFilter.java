@@ -0,0 +1,50 @@
+package org.example.resai.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the request's {@link RequestTimings} before any other filter
+ * (including JWT auth) so every phase of the request is captured, and
+ * reports repeated statements once the response (including any lazy loading
+ * during serialization) has been written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    public RequestTimingFilter(SqlStatementRecorder sqlStatementRecorder) {
+        this.sqlStatementRecorder = sqlStatementRecorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+            sqlStatementRecorder.reportRepeats(endpoint(request), timings);
+        }
+    }
+
+    // Route template (/api/resumes/{id}) rather than the raw URI, to keep the metric's tags bounded
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.resai.tracing;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request accumulator of phase durations, bound to the request thread
+ * by {@link RequestTimingFilter}. Repeated phases (e.g. two user lookups)
+ * are summed and counted. SQL statements are summed into a "db" phase and
+ * counted per statement for N+1 detection.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private final Map<String, Integer> queryCounts = new HashMap<>();
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void record(String phase, long nanos) {
+        long[] entry = phases.computeIfAbsent(phase, p -> new long[2]);
+        entry[0] += nanos;
+        entry[1]++;
+    }
+
+    void recordQuery(String fingerprint, long nanos) {
+        record("db", nanos);
+        queryCounts.merge(fingerprint, 1, Integer::sum);
+    }
+
+    Map<String, Integer> queryCounts() {
+        return queryCounts;
+    }
+
+    /**
+     * Render as a Server-Timing header value, e.g.
+     * {@code jwt;dur=0.8, user-lookup;dur=4.1;desc="2 calls", total;dur=812.5}
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+            appendMetric(header, phase.getKey(), phase.getValue()[0], phase.getValue()[1]);
+        }
+        appendMetric(header, "total", System.nanoTime() - startNanos, 1);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos, long count) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+        if (count > 1) {
+            header.append(";desc=\"").append(count).append(" calls\"");
+        }
+    }
+}
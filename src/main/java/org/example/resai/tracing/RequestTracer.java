@@ -0,0 +1,45 @@
+package org.example.resai.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Wraps a request phase (JWT parsing, lookups, the OpenAI call, ...) in a
+ * Micrometer observation and records its duration for the Server-Timing header.
+ * Observations become spans when tracing export is enabled
+ * (management.tracing.enabled) and a resai.phase timer otherwise.
+ */
+@Component
+public class RequestTracer {
+
+    private final ObservationRegistry observationRegistry;
+
+    public RequestTracer(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T> T trace(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return Observation.createNotStarted("resai.phase", observationRegistry)
+                    .contextualName(phase)
+                    .lowCardinalityKeyValue("phase", phase)
+                    .observe(work);
+        } finally {
+            RequestTimings timings = RequestTimings.current();
+            if (timings != null) {
+                timings.record(phase, System.nanoTime() - start);
+            }
+        }
+    }
+
+    public void trace(String phase, Runnable work) {
+        trace(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
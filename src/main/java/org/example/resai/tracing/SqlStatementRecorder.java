@@ -0,0 +1,211 @@
+package org.example.resai.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement latency metrics, a rate-limited slow-query log and per-request
+ * N+1 detection, fed by {@link StatementTracingDataSource}.
+ *
+ * Statements are grouped by fingerprint: the SQL with whitespace collapsed and
+ * IN-lists folded to a single placeholder, tagged as a short id (logged once with
+ * its SQL) so the metric stays readable. Bind values in the slow log are redacted
+ * down to their type, except numbers, booleans and timestamps.
+ */
+@Slf4j
+@Component
+public class SqlStatementRecorder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final int MAX_FINGERPRINTS = 500;
+    private static final int MAX_CACHED_SQL = 2000;
+    private static final int MAX_LOGGED_SQL = 2000;
+    private static final Fingerprint OTHER = new Fingerprint("other", "other", "");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Fingerprint> bySql = new ConcurrentHashMap<>();
+    private final Map<String, Fingerprint> byId = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter slowCounter;
+    private final Set<String> reportedRepeats = ConcurrentHashMap.newKeySet();
+    private final AtomicLong logWindow = new AtomicLong();
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    @Value("${sql.slow-query.threshold-ms:200}")
+    private long slowThresholdMs;
+
+    @Value("${sql.slow-query.max-logged-per-second:10}")
+    private int maxLoggedPerSecond;
+
+    @Value("${sql.slow-query.log-binds:true}")
+    private boolean logBinds;
+
+    @Value("${sql.n-plus-one.threshold:5}")
+    private int repeatThreshold;
+
+    public SqlStatementRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slowCounter = Counter.builder("db.query.slow")
+                .description("Statements slower than sql.slow-query.threshold-ms")
+                .register(meterRegistry);
+    }
+
+    /** Called after every executed statement (or batch) on the request thread. */
+    void record(String pool, String sql, long nanos, List<Object> binds, int batchSize) {
+        Fingerprint fingerprint = fingerprint(sql);
+        timer(pool, fingerprint).record(nanos, TimeUnit.NANOSECONDS);
+
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.recordQuery(fingerprint.id(), nanos);
+        }
+
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            slowCounter.increment();
+            logSlow(pool, fingerprint, sql, nanos, binds, batchSize);
+        }
+    }
+
+    /**
+     * Flags statements a single request ran at least sql.n-plus-one.threshold times,
+     * typically a lazy association loaded row by row. Counted every time, logged once
+     * per endpoint and statement.
+     */
+    void reportRepeats(String endpoint, RequestTimings timings) {
+        for (Map.Entry<String, Integer> query : timings.queryCounts().entrySet()) {
+            if (query.getValue() < repeatThreshold || OTHER.id().equals(query.getKey())) {
+                continue;
+            }
+            Counter.builder("db.query.repeated")
+                    .description("Requests that ran the same statement sql.n-plus-one.threshold times or more")
+                    .tag("endpoint", endpoint)
+                    .tag("query", query.getKey())
+                    .register(meterRegistry)
+                    .increment();
+            if (reportedRepeats.add(endpoint + " " + query.getKey())) {
+                Fingerprint fingerprint = byId.getOrDefault(query.getKey(), OTHER);
+                log.warn("Possible N+1: {} ran {} {} times in one request: {}",
+                        endpoint, query.getKey(), query.getValue(), truncate(fingerprint.sql()));
+            }
+        }
+    }
+
+    private Fingerprint fingerprint(String sql) {
+        Fingerprint known = bySql.get(sql);
+        if (known != null) {
+            return known;
+        }
+
+        String normalized = PLACEHOLDER_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+        String id = "q" + Integer.toHexString(normalized.hashCode());
+        Fingerprint fingerprint = byId.get(id);
+        if (fingerprint == null) {
+            if (byId.size() >= MAX_FINGERPRINTS) {
+                return OTHER;
+            }
+            String operation = normalized.isEmpty() ? "other" : normalized.split(" ", 2)[0].toLowerCase(Locale.ROOT);
+            Fingerprint created = new Fingerprint(id, operation, normalized);
+            fingerprint = byId.putIfAbsent(id, created);
+            if (fingerprint == null) {
+                fingerprint = created;
+                log.info("SQL {} = {}", id, truncate(normalized));
+            }
+        }
+        // Differently sized IN-lists are distinct strings; stop caching those past the cap
+        if (bySql.size() < MAX_CACHED_SQL) {
+            bySql.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private Timer timer(String pool, Fingerprint fingerprint) {
+        return timers.computeIfAbsent(pool + " " + fingerprint.id(), key -> Timer.builder("db.query")
+                .description("JDBC statement execution time")
+                .tag("pool", pool)
+                .tag("operation", fingerprint.operation())
+                .tag("query", fingerprint.id())
+                // Fixed buckets rather than a full percentile histogram: one series set per statement
+                .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10),
+                        Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+                        Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+                        Duration.ofMillis(2500))
+                .register(meterRegistry));
+    }
+
+    private void logSlow(String pool, Fingerprint fingerprint, String sql, long nanos, List<Object> binds, int batchSize) {
+        if (!admitLog()) {
+            return;
+        }
+        int dropped = suppressed.getAndSet(0);
+        log.warn("Slow query {} ms on {} ({}{}){}: {}{}",
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                pool,
+                fingerprint.id(),
+                batchSize > 0 ? ", batch of " + batchSize : "",
+                dropped > 0 ? " [" + dropped + " more slow queries not logged]" : "",
+                truncate(sql.trim()),
+                logBinds && !binds.isEmpty() ? " binds " + redact(binds) : "");
+    }
+
+    // At most maxLoggedPerSecond slow-query lines per second; the rest are only counted
+    private boolean admitLog() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long window = logWindow.get();
+        if (window != second && logWindow.compareAndSet(window, second)) {
+            loggedInWindow.set(0);
+        }
+        if (loggedInWindow.incrementAndGet() > maxLoggedPerSecond) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    static String redact(List<Object> binds) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < binds.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            Object value = binds.get(i);
+            if (value == null) {
+                out.append("NULL");
+            } else if (value instanceof Number || value instanceof Boolean
+                    || value instanceof TemporalAccessor || value instanceof Date) {
+                out.append(value);
+            } else if (value instanceof CharSequence text) {
+                out.append("<string:").append(text.length()).append('>');
+            } else if (value instanceof byte[] bytes) {
+                out.append("<bytes:").append(bytes.length).append('>');
+            } else {
+                out.append('<').append(value.getClass().getSimpleName()).append('>');
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+
+    private record Fingerprint(String id, String operation, String sql) {}
+}
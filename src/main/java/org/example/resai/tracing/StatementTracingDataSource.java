@@ -0,0 +1,122 @@
+package org.example.resai.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Times every statement executed through a pool's connections and hands the
+ * SQL, duration and bind values to {@link SqlStatementRecorder}. Replaces
+ * Hibernate's show-sql, which printed every statement synchronously and still
+ * said nothing about how long it took.
+ */
+public class StatementTracingDataSource extends DelegatingDataSource {
+
+    private final String pool;
+    private final Supplier<SqlStatementRecorder> recorder;
+
+    public StatementTracingDataSource(DataSource target, String pool, Supplier<SqlStatementRecorder> recorder) {
+        super(target);
+        this.pool = pool;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracing(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracing(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection tracing(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                return traced(statement, method.getReturnType(), (String) args[0]);
+            }
+            if (result instanceof Statement statement && "createStatement".equals(method.getName())) {
+                return traced(statement, method.getReturnType(), null);
+            }
+            return result;
+        });
+    }
+
+    private Object traced(Statement statement, Class<?> type, String preparedSql) {
+        List<Object> binds = new ArrayList<>();
+        int[] batched = {0};
+        return proxy(type, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(binds, index, name.equals("setNull") ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                binds.clear();
+            } else if ("addBatch".equals(name)) {
+                batched[0]++;
+            } else if ("clearBatch".equals(name)) {
+                batched[0] = 0;
+            } else if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql : plainSql(args);
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    if (sql != null) {
+                        int batchSize = "executeBatch".equals(name) || "executeLargeBatch".equals(name) ? batched[0] : 0;
+                        recorder.get().record(pool, sql, System.nanoTime() - start, binds, batchSize);
+                        if (batchSize > 0) {
+                            batched[0] = 0;
+                        }
+                    }
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    // Statement.execute(String sql, ...); a plain executeBatch has no single SQL to report
+    private static String plainSql(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+    }
+
+    private static void bind(List<Object> binds, int index, Object value) {
+        while (binds.size() < index) {
+            binds.add(null);
+        }
+        binds.set(index - 1, value);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : invoke(target, method, args);
+                    default -> handler.handle(proxy, method, args);
+                }));
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.resai.web;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Brotli for resume JSON responses when the client offers "br". Tomcat's own
+ * compression (server.compression.*) only does gzip; it still handles every client
+ * that doesn't accept br, and leaves responses alone once Content-Encoding is set here.
+ *
+ * Resume responses are bounded documents, so the body is buffered, measured against
+ * server.compression.min-response-size and compressed in one go. Without the native
+ * library for the platform this filter stays out of the way and gzip applies.
+ */
+@Slf4j
+@Component
+// Outside IdempotencyFilter, so stored responses are uncompressed and replays are negotiated per request
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class BrotliResponseFilter extends OncePerRequestFilter {
+
+    private static final String BR = "br";
+
+    private final boolean available;
+    private final Encoder.Parameters parameters;
+
+    @Value("${compression.brotli.enabled:true}")
+    private boolean enabled;
+
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize minResponseSize;
+
+    public BrotliResponseFilter(@Value("${compression.brotli.quality:4}") int quality) {
+        this.available = Brotli4jLoader.isAvailable();
+        this.parameters = new Encoder.Parameters().setQuality(quality).setMode(Encoder.Mode.TEXT);
+        if (!available) {
+            log.info("Brotli native library not available, resume responses fall back to gzip");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !available
+                || !request.getRequestURI().startsWith("/api/resumes")
+                || "HEAD".equals(request.getMethod())
+                || !acceptsBrotli(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        if (response.isCommitted()
+                || body.length < minResponseSize.toBytes()
+                || response.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || !isJson(wrapper.getContentType())) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] compressed = Encoder.compress(body, parameters);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, BR);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    // "gzip, deflate, br" / "br;q=1.0, gzip;q=0.8"; an explicit q=0 refuses the coding
+    static boolean acceptsBrotli(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!BR.equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.resai.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.resai.model.User;
+import org.example.resai.service.IdempotencyService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Idempotency-Key support for the paid AI endpoints, so a client retrying after a
+ * dropped connection gets the original result instead of a second OpenAI call (and,
+ * for tailoring, a second version bump). Requests without the header are untouched.
+ *
+ * Only 2xx responses are stored; on errors the key is released so the retry runs again.
+ * Runs inside BrotliResponseFilter so the uncompressed body is what gets stored.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final String[] PAID_PATHS = {
+            "/api/ai/**",
+            "/api/resumes/*/tailor",
+            "/api/resumes/*/cover-letter"
+    };
+
+    private final IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String pattern : PAID_PATHS) {
+            if (PATHS.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
+            // Unauthenticated: the controller rejects it, nothing to deduplicate
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, 400, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        byte[] requestHash = hash(request, body);
+
+        IdempotencyService.Decision decision;
+        try {
+            decision = idempotencyService.begin(user.getId(), key, requestHash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted waiting for idempotency key", e);
+        }
+
+        switch (decision.outcome()) {
+            case REPLAY -> {
+                response.setStatus(decision.stored().responseStatus());
+                if (decision.stored().contentType() != null) {
+                    response.setContentType(decision.stored().contentType());
+                }
+                response.setHeader(REPLAYED, "true");
+                byte[] stored = decision.stored().responseBody() != null ? decision.stored().responseBody() : new byte[0];
+                response.setContentLength(stored.length);
+                response.getOutputStream().write(stored);
+            }
+            case MISMATCH -> writeError(response, 422, "Idempotency-Key was already used for a different request");
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "5");
+                writeError(response, 409, "A request with this Idempotency-Key is still being processed");
+            }
+            case EXECUTE -> execute(new CachedBodyRequest(request, body), response, filterChain, user.getId(), key, requestHash);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         Long userId, String key, byte[] requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                idempotencyService.complete(userId, key, requestHash, status,
+                        wrapper.getContentType(), wrapper.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyService.release(userId, key, requestHash);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Method and path are part of the hash, so a key reused on another endpoint is a mismatch
+    private static byte[] hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    /**
+     * Replays the body already read for hashing to the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
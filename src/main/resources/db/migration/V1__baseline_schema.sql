@@ -0,0 +1,43 @@
+-- Schema as previously created by Hibernate's ddl-auto=update.
+-- Databases that already have it are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs on empty databases.
+
+CREATE TABLE users (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email              varchar(255) NOT NULL UNIQUE,
+    full_name          varchar(255),
+    profile_picture    varchar(255),
+    password           varchar(255),
+    auth_provider      varchar(255),
+    created_at         timestamp(6),
+    updated_at         timestamp(6),
+    role               varchar(255) CHECK (role IN ('USER', 'ADMIN')),
+    premium_until      timestamp(6),
+    tailoring_count    integer,
+    cover_letter_count integer,
+    last_reset_date    date
+);
+
+CREATE TABLE resumes (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     bigint       NOT NULL REFERENCES users (id),
+    title       varchar(255) NOT NULL,
+    data        jsonb        NOT NULL,
+    ai_metadata jsonb,
+    version     integer      NOT NULL,
+    language    varchar(5),
+    created_at  timestamp(6),
+    updated_at  timestamp(6)
+);
+
+CREATE TABLE access_codes (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code            varchar(20)  NOT NULL UNIQUE,
+    duration_days   integer      NOT NULL,
+    is_used         boolean      NOT NULL,
+    used_by_user_id bigint REFERENCES users (id),
+    created_at      timestamp(6) NOT NULL,
+    activated_at    timestamp(6),
+    expires_at      timestamp(6),
+    notes           varchar(500)
+);
@@ -0,0 +1,2 @@
+-- Trigram matching for admin substring search on user emails
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,31 @@
+-- Indexes for the hot repository queries. Built CONCURRENTLY so existing tables stay
+-- writable; Flyway runs this script outside a transaction because of it.
+-- If a build fails it leaves an INVALID index behind: drop it before re-running.
+-- QueryPlanTests asserts each query below still picks its index.
+
+-- ResumeRepo.findByUserIdOrderByUpdatedAtDesc / findSummariesByUserId / countByUserId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_resumes_user_updated ON resumes (user_id, updated_at DESC, id DESC);
+
+-- UserRepo.countByPremiumUntilAfter (only premium users have a value)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_premium_until ON users (premium_until) WHERE premium_until IS NOT NULL;
+
+-- UserRepo.countSignupsPerDaySince (dashboard reconciliation)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at ON users (created_at);
+
+-- UserRepo.findAdminPage email search: prefix matches use text_pattern_ops, substring matches use trigrams
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_lower_pattern ON users (lower(email) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_lower_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- AccessCodeRepo.streamCodesCreatedSince / aggregateStatistics recent window
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_codes_created_at ON access_codes (created_at);
+
+-- AccessCodeRepo unused/used listings: partial indexes instead of one on the two-valued is_used
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_codes_unused_created ON access_codes (created_at DESC) WHERE is_used = false;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_codes_used_activated ON access_codes (activated_at DESC) WHERE is_used = true;
+
+-- FK lookups when deleting users / joining redeemers
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_codes_used_by_user ON access_codes (used_by_user_id) WHERE used_by_user_id IS NOT NULL;
+
+-- Superseded by the partial indexes above (created by ddl-auto from the old @Table indexes)
+DROP INDEX CONCURRENTLY IF EXISTS idx_access_codes_is_used;
+DROP INDEX CONCURRENTLY IF EXISTS idx_access_codes_activated_at;
@@ -0,0 +1,21 @@
+-- Idempotency-Key records for the paid AI endpoints (see IdempotencyFilter).
+-- A row is claimed IN_PROGRESS before the request runs and holds the stored response
+-- once COMPLETED. locked_until bounds how long a crashed instance can keep a claim;
+-- rows past expires_at are ignored and purged by IdempotencyService.
+
+CREATE TABLE idempotency_keys (
+    user_id         bigint       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    idem_key        varchar(255) NOT NULL,
+    request_hash    bytea        NOT NULL,
+    status          varchar(16)  NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status integer,
+    content_type    varchar(255),
+    response_body   bytea,
+    locked_until    timestamp(6),
+    created_at      timestamp(6) NOT NULL,
+    expires_at      timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id, idem_key)
+);
+
+-- IdempotencyService.purgeExpired
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,14 @@
+-- State of the cluster-wide background tasks (see ClusterScheduler), one row per task.
+-- next_run_at is the task's next schedule slot; it survives restarts, so slots missed
+-- while every instance was down are seen and handled by the task's catch-up policy.
+
+CREATE TABLE scheduled_tasks (
+    name             varchar(100) PRIMARY KEY,
+    next_run_at      timestamp(6) NOT NULL,
+    last_started_at  timestamp(6),
+    last_finished_at timestamp(6),
+    last_status      varchar(16) CHECK (last_status IN ('SUCCESS', 'FAILURE')),
+    last_processed   integer,
+    last_error       varchar(1000),
+    last_node        varchar(255)
+);
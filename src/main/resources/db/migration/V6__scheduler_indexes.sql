@@ -0,0 +1,8 @@
+-- Indexes for the chunked scheduler tasks. Built CONCURRENTLY like V3, so this script
+-- also runs outside a transaction.
+
+-- UserJdbcRepo.resetMonthlyLimits: users whose counters predate the current month
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_last_reset_date ON users (last_reset_date);
+
+-- AccessCodeJdbcRepo.deleteUsedExpiredBefore: redeemed codes past their retention
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_access_codes_used_expires ON access_codes (expires_at) WHERE is_used = true;
@@ -0,0 +1,8 @@
+-- Tailorings per day for the admin dashboard series (see DashboardStatsService), which
+-- otherwise only exist as events on the node that ran them. One counter row per day,
+-- bumped in the tailoring's own write transaction so it commits or rolls back with it.
+
+CREATE TABLE daily_tailorings (
+    day   date   PRIMARY KEY,
+    count bigint NOT NULL
+);
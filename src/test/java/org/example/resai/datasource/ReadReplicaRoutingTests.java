@@ -0,0 +1,84 @@
+package org.example.resai.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing against a stand-in replica: the replica pool points at the same database
+ * but its connections are read-only, so "transaction_read_only" tells which pool
+ * served a transaction (and a write routed to the replica would fail).
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.url=${spring.datasource.url}",
+        "datasource.replica.read-your-writes-ms=60000"
+})
+class ReadReplicaRoutingTests {
+
+    private static final String REPLICA = "on";
+    private static final String PRIMARY = "off";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals(REPLICA, poolOf(true));
+    }
+
+    @Test
+    void writesAndAutoCommitWorkUseThePrimary() {
+        assertEquals(PRIMARY, poolOf(false));
+        assertEquals(PRIMARY, jdbcTemplate.queryForObject("SHOW transaction_read_only", String.class));
+    }
+
+    @Test
+    void userReadsTheirOwnWritesFromThePrimary() {
+        signIn("writer@routing.test");
+        poolOf(false);
+        assertEquals(PRIMARY, poolOf(true), "a read right after the user's own write must not hit the replica");
+
+        signIn("someone-else@routing.test");
+        assertEquals(REPLICA, poolOf(true));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        signIn("rollback@routing.test");
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            status.setRollbackOnly();
+        });
+        assertEquals(REPLICA, poolOf(true));
+    }
+
+    private String poolOf(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SHOW transaction_read_only", String.class));
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.resai.invalidation;
+
+import org.example.resai.ResAiApplication;
+import org.example.resai.event.RemoteInvalidationEvent;
+import org.example.resai.model.AccessCode;
+import org.example.resai.service.AccessCodeFilter;
+import org.example.resai.service.AccessCodeService;
+import org.example.resai.service.DashboardStatsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two instances against the same database: this test's context writes, a second
+ * application context started alongside it plays the other node. Its periodic
+ * access code sync and dashboard reconciliation are pushed out of the way, so only
+ * the bus can explain a new code showing up in its filter or its counters.
+ */
+@SpringBootTest(properties = {
+        "access-codes.filter.sync-interval-ms=3600000",
+        "admin.stats.remote-sync-interval-ms=200"
+})
+class InvalidationBusTests {
+
+    private static final String NO_PERIODIC_SYNC = "--access-codes.filter.sync-interval-ms=3600000";
+    private static final String NO_PERIODIC_RECOUNT = "--admin.stats.reconcile-interval-ms=3600000";
+
+    private static ConfigurableApplicationContext otherNode;
+    private static final List<RemoteInvalidationEvent> receivedThere = new CopyOnWriteArrayList<>();
+    private static final List<RemoteInvalidationEvent> receivedHere = new CopyOnWriteArrayList<>();
+    private static boolean listeningHere;
+
+    @Autowired
+    private AccessCodeService accessCodeService;
+
+    @Autowired
+    private ConfigurableApplicationContext thisNode;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    private AccessCode code;
+
+    @BeforeAll
+    static void startOtherNode() {
+        otherNode = new SpringApplicationBuilder(ResAiApplication.class)
+                .run("--server.port=0", "--warmup.enabled=false", NO_PERIODIC_SYNC, NO_PERIODIC_RECOUNT);
+        otherNode.addApplicationListener(ApplicationListener.<RemoteInvalidationEvent>forPayload(receivedThere::add));
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        if (!listeningHere) {
+            thisNode.addApplicationListener(ApplicationListener.<RemoteInvalidationEvent>forPayload(receivedHere::add));
+            listeningHere = true;
+        }
+        receivedThere.clear();
+        receivedHere.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (code != null) {
+            accessCodeService.deleteCode(code.getId());
+        }
+    }
+
+    @Test
+    void codeIssuedHereIsKnownOnTheOtherNode() {
+        AccessCodeFilter remoteFilter = otherNode.getBean(AccessCodeFilter.class);
+
+        code = accessCodeService.generateCode(30, "invalidation test");
+
+        assertTrue(eventually(() -> receivedThere.stream().anyMatch(e ->
+                e.topic().equals(InvalidationBus.ACCESS_CODES) && e.keys().contains(code.getCode()))));
+        assertTrue(eventually(() -> remoteFilter.mightExist(code.getCode())));
+        // The writer applied the change itself and ignores its own message
+        assertFalse(receivedHere.stream().anyMatch(e -> e.keys().contains(code.getCode())));
+    }
+
+    @Test
+    void dashboardCountersFollowWritesOnTheOtherNode() {
+        DashboardStatsService remoteStats = otherNode.getBean(DashboardStatsService.class);
+        // Deltas still queued here from earlier tests go out first; the other node handles
+        // messages in order, so once it has seen the barrier they are applied
+        thisNode.getBean(DashboardStatsService.class).publishDeltas();
+        String barrier = UUID.randomUUID().toString();
+        invalidationBus.publish("test-barrier", barrier);
+        assertTrue(eventually(() -> receivedThere.stream().anyMatch(e -> e.keys().contains(barrier))));
+        long codesThere = remoteStats.getStats().totalCodes();
+
+        code = accessCodeService.generateCode(30, "dashboard delta test");
+
+        assertTrue(eventually(() -> remoteStats.getStats().totalCodes() == codesThere + 1));
+        assertTrue(receivedThere.stream().anyMatch(e ->
+                e.topic().equals(InvalidationBus.DASHBOARD_STATS) && e.keys().contains("codes=1")));
+    }
+
+    @Test
+    void changesMissedWhileDisconnectedAreFlushedOnReconnect() {
+        InvalidationListener remoteListener = otherNode.getBean(InvalidationListener.class);
+        AccessCodeFilter remoteFilter = otherNode.getBean(AccessCodeFilter.class);
+
+        remoteListener.stop();
+        code = accessCodeService.generateCode(30, "invalidation gap test");
+        remoteListener.start();
+
+        assertTrue(eventually(() -> receivedThere.stream().anyMatch(e -> e.flushes(InvalidationBus.ACCESS_CODES))));
+        assertTrue(remoteListener.isConnected());
+        assertTrue(eventually(() -> remoteFilter.mightExist(code.getCode())));
+        assertFalse(receivedThere.stream().anyMatch(e -> e.keys().contains(code.getCode())),
+                "the notification was sent while the other node wasn't listening");
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.resai.model.resume;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResumeDocumentCodecTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void knownSectionsAreTypedAndUnknownFieldsKept() throws Exception {
+        String json = """
+                {"personalInfo": {"fullName": "Jordan", "website": "https://jordan.dev"},
+                 "summary": "Backend engineer",
+                 "experience": [{"company": "Acme", "startDate": "2021-01", "bullets": ["Built APIs"], "remote": true}],
+                 "skills": ["Java", "SQL"],
+                 "languages": [{"name": "French", "level": "native"}]}
+                """;
+
+        ResumeDocument document = objectMapper.readValue(json, ResumeDocument.class);
+
+        assertEquals("Jordan", document.personalInfo().fullName());
+        assertEquals(Map.of("website", "https://jordan.dev"), document.personalInfo().extra());
+        assertEquals("Acme", document.experience().get(0).company());
+        assertEquals(List.of("Built APIs"), document.experience().get(0).bullets());
+        assertEquals(Map.of("remote", true), document.experience().get(0).extra());
+        assertEquals(List.of("Java", "SQL"), document.skills());
+        assertNull(document.projects());
+        assertEquals(objectMapper.readTree(json), objectMapper.readTree(objectMapper.writeValueAsString(document)));
+    }
+
+    @Test
+    void unexpectedShapesRoundTripUnchanged() throws Exception {
+        String json = """
+                {"summary": null,
+                 "skills": [{"name": "Java", "level": 5}, "SQL"],
+                 "experience": [{"company": "Acme"}, "freelance"],
+                 "education": {"school": "not a list"},
+                 "personalInfo": {"phone": 5145550100}}
+                """;
+
+        ResumeDocument document = objectMapper.readValue(json, ResumeDocument.class);
+
+        assertNull(document.summary());
+        assertNull(document.skills());
+        assertNull(document.experience());
+        assertNull(document.education());
+        assertNull(document.personalInfo().phone());
+        assertEquals(objectMapper.readTree(json), objectMapper.readTree(objectMapper.writeValueAsString(document)));
+    }
+}
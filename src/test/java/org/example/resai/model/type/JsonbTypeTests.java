@@ -0,0 +1,107 @@
+package org.example.resai.model.type;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.resai.model.Resume;
+import org.example.resai.model.User;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.repository.ResumeRepo;
+import org.example.resai.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class JsonbTypeTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ResumeRepo resumeRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Resume resume;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("jsonb-" + UUID.randomUUID() + "@test.local");
+        user.setAuthProvider("LOCAL");
+        user = userRepo.save(user);
+
+        resume = new Resume();
+        resume.setUser(user);
+        resume.setTitle("jsonb test");
+        resume.setData(new ResumeDocument(null, "original", null, null, null, List.of("Java"), null));
+        resume.setAiMetadata(Map.of("source", "test", "request", Map.of("tags", List.of("java"))));
+        resume = resumeRepo.save(resume);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        resumeRepo.deleteById(resume.getId());
+        userRepo.delete(user);
+    }
+
+    @Test
+    void sameContentIsNotWrittenBack() {
+        LocalDateTime updatedAt = resumeRepo.findById(resume.getId()).orElseThrow().getUpdatedAt();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Resume loaded = resumeRepo.findById(resume.getId()).orElseThrow();
+            // A different instance with equal content, as an autosave without edits produces
+            loaded.setData(objectMapper.convertValue(loaded.getData(), ResumeDocument.class));
+        });
+
+        // No UPDATE, so @PreUpdate never ran
+        assertEquals(updatedAt, resumeRepo.findById(resume.getId()).orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void replacedDocumentIsWritten() {
+        LocalDateTime updatedAt = resumeRepo.findById(resume.getId()).orElseThrow().getUpdatedAt();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Resume loaded = resumeRepo.findById(resume.getId()).orElseThrow();
+            loaded.setData(loaded.getData().withSummary("changed"));
+        });
+
+        Resume saved = resumeRepo.findById(resume.getId()).orElseThrow();
+        assertEquals("changed", saved.getData().summary());
+        assertNotEquals(updatedAt, saved.getUpdatedAt());
+    }
+
+    @Test
+    void loadedMetadataCannotBeEditedInPlace() {
+        Resume loaded = resumeRepo.findById(resume.getId()).orElseThrow();
+        assertThrows(UnsupportedOperationException.class, () -> loaded.getAiMetadata().put("source", "edited"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nestedValuesCannotBeEditedInPlace() {
+        Resume loaded = resumeRepo.findById(resume.getId()).orElseThrow();
+        Map<String, Object> request = (Map<String, Object>) loaded.getAiMetadata().get("request");
+
+        assertThrows(UnsupportedOperationException.class, () -> request.put("tags", List.of()));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<Object>) request.get("tags")).add("sql"));
+        assertThrows(UnsupportedOperationException.class, () -> loaded.getData().skills().add("SQL"));
+    }
+}
@@ -0,0 +1,344 @@
+package org.example.resai.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query-plan regression tests: each repository query must keep using the index
+ * the migrations create for it. The SQL and bind values are captured from the
+ * real repository call and re-run under EXPLAIN against a seeded, vacuumed and
+ * analyzed dataset. The planner runs with its default settings, so a test fails
+ * when the index stops being the cheapest plan, not only when it can't be used.
+ * The seed is sized so that a sequential scan clearly loses for every query.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTests {
+
+    private static final String EMAIL_DOMAIN = "@plan.test";
+    private static final String CODE_PREFIX = "PLN-";
+    private static final int USERS = 200_000;
+    private static final int RESUMES = 400_000;
+    private static final int CODES = 200_000;
+
+    @Autowired
+    private ResumeRepo resumeRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private UserJdbcRepo userJdbcRepo;
+
+    @Autowired
+    private AccessCodeRepo accessCodeRepo;
+
+    @Autowired
+    private AccessCodeJdbcRepo accessCodeJdbcRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    private long userId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (email, role, auth_provider, created_at, premium_until)
+                SELECT 'plan-' || g || ?, 'USER', 'LOCAL',
+                       LOCALTIMESTAMP - make_interval(days => g % 1825),
+                       CASE WHEN g % 100 = 0 THEN LOCALTIMESTAMP + make_interval(days => g % 60 - 30) END
+                FROM generate_series(1, ?) g
+                """, EMAIL_DOMAIN, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO resumes (user_id, title, data, version, language, created_at, updated_at)
+                SELECT u.id, 'Plan resume ' || g, '{}'::jsonb, 1, 'en',
+                       LOCALTIMESTAMP - make_interval(hours => g), LOCALTIMESTAMP - make_interval(mins => g)
+                FROM generate_series(1, ?) g
+                JOIN users u ON u.email = 'plan-' || (g % ? + 1) || ?
+                """, RESUMES, USERS, EMAIL_DOMAIN);
+        jdbcTemplate.update("""
+                INSERT INTO access_codes (code, duration_days, is_used, used_by_user_id, created_at, activated_at)
+                SELECT ? || lpad(g::text, 8, '0'), 30, g % 100 = 0,
+                       CASE WHEN g % 100 = 0 THEN (SELECT id FROM users WHERE email = 'plan-1' || ?) END,
+                       LOCALTIMESTAMP - make_interval(hours => g),
+                       CASE WHEN g % 100 = 0 THEN LOCALTIMESTAMP - make_interval(mins => g) END
+                FROM generate_series(1, ?) g
+                """, CODE_PREFIX, EMAIL_DOMAIN, CODES);
+        // VACUUM as well, so the visibility map lets the planner cost index-only scans as it would in production
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+        jdbcTemplate.execute("VACUUM ANALYZE resumes");
+        jdbcTemplate.execute("VACUUM ANALYZE access_codes");
+
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "plan-42" + EMAIL_DOMAIN);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM access_codes WHERE code LIKE ?", CODE_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM resumes WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?)", "%" + EMAIL_DOMAIN);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + EMAIL_DOMAIN);
+    }
+
+    // ============ RESUMES ============
+
+    @Test
+    void resumesByUserNewestFirst() {
+        assertUsesIndex(capture(() -> resumeRepo.findByUserIdOrderByUpdatedAtDesc(userId)), "idx_resumes_user_updated");
+    }
+
+    @Test
+    void resumeSummariesByUser() {
+        assertUsesIndex(capture(() -> resumeRepo.findSummariesByUserId(userId, PageRequest.of(0, 20))), "idx_resumes_user_updated");
+    }
+
+    @Test
+    void resumeCountByUser() {
+        assertUsesIndex(capture(() -> resumeRepo.countByUserId(userId)), "idx_resumes_user_updated");
+    }
+
+    @Test
+    void resumeByIdAndUser() {
+        assertNoSeqScan(capture(() -> resumeRepo.findByIdAndUserId(1L, userId)));
+    }
+
+    // ============ USERS ============
+
+    @Test
+    void userByEmail() {
+        // Unique-constraint index; its name differs between migrated and ddl-auto databases
+        assertNoSeqScan(capture(() -> userRepo.findByEmail("plan-42" + EMAIL_DOMAIN)));
+    }
+
+    @Test
+    void premiumUserCount() {
+        assertUsesIndex(capture(() -> userRepo.countByPremiumUntilAfter(LocalDateTime.now())), "idx_users_premium_until");
+    }
+
+    @Test
+    void signupsPerDay() {
+        assertUsesIndex(capture(() -> userRepo.countSignupsPerDaySince(LocalDateTime.now().minusDays(7))), "idx_users_created_at");
+    }
+
+    @Test
+    void adminUserSearchByEmailPrefix() {
+        assertUsesIndex(capture(() -> userJdbcRepo.findAdminPage(null, null, null, "plan-12345%", 51)),
+                "idx_users_email_lower_pattern");
+    }
+
+    @Test
+    void adminUserSearchByEmailSubstring() {
+        assertUsesIndex(capture(() -> userJdbcRepo.findAdminPage(null, null, null, "%an-12345%", 51)),
+                "idx_users_email_lower_trgm");
+    }
+
+    // ============ ACCESS CODES ============
+
+    @Test
+    void accessCodeByCode() {
+        assertNoSeqScan(capture(() -> accessCodeRepo.findByCode(CODE_PREFIX + "00000042")));
+    }
+
+    @Test
+    void unusedCodesNewestFirst() {
+        assertUsesIndex(capture(() -> accessCodeJdbcRepo.findSummaries(false, null, null, codePage("createdAt"))),
+                "idx_access_codes_unused_created");
+    }
+
+    @Test
+    void usedCodesByActivationPage() {
+        assertUsesIndex(capture(() -> accessCodeJdbcRepo.findSummaries(true, null, null, codePage("activatedAt"))),
+                "idx_access_codes_used_activated");
+    }
+
+    @Test
+    void allCodesNewestFirst() {
+        assertUsesIndex(capture(() -> accessCodeJdbcRepo.findSummaries(null, null, null, codePage("createdAt"))),
+                "idx_access_codes_created_at");
+    }
+
+    @Test
+    void usedCodesByActivation() {
+        assertUsesIndex(capture(() -> accessCodeRepo.findUsedCodesOrderByActivatedAtDesc()), "idx_access_codes_used_activated");
+    }
+
+    @Test
+    void codesCreatedSince() {
+        assertUsesIndex(capture(() -> {
+            try (Stream<String> codes = accessCodeRepo.streamCodesCreatedSince(LocalDateTime.now().minusHours(24))) {
+                return codes.count();
+            }
+        }), "idx_access_codes_created_at");
+    }
+
+    // ============ HELPERS ============
+
+    // The page AdminController.getCodePage asks for: newest first, id as the tie-breaker
+    private static PageRequest codePage(String sort) {
+        return PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, sort).and(Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    private StatementCapture.Captured capture(Supplier<?> repositoryCall) {
+        List<StatementCapture.Captured> statements = statementCapture.during(() ->
+                transactionTemplate.execute(status -> repositoryCall.get()));
+        // The first SELECT is the query itself (a Page also issues its count query afterwards)
+        return statements.stream()
+                .filter(s -> s.sql().trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("repository call issued no SELECT"));
+    }
+
+    private String explain(StatementCapture.Captured statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                statement.bindTo(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private void assertUsesIndex(StatementCapture.Captured statement, String index) {
+        String plan = explain(statement);
+        assertTrue(plan.contains("\"Index Name\": \"" + index + "\""),
+                () -> "expected " + index + " for\n" + statement.sql() + "\nplan:\n" + plan);
+    }
+
+    private void assertNoSeqScan(StatementCapture.Captured statement) {
+        String plan = explain(statement);
+        assertFalse(plan.contains("\"Seq Scan\""), () -> "sequential scan for\n" + statement.sql() + "\nplan:\n" + plan);
+    }
+
+    /**
+     * Wraps the DataSource so the test can record the exact SQL and parameter
+     * bindings a repository method sends, and replay them under EXPLAIN.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StatementCapture {
+
+        private final List<Captured> captured = new CopyOnWriteArrayList<>();
+        private volatile Thread recording;
+
+        record Binding(Method setter, Object[] args) {}
+
+        record Captured(String sql, List<Binding> bindings) {
+            void bindTo(PreparedStatement ps) throws SQLException {
+                for (Binding binding : bindings) {
+                    try {
+                        binding.setter().invoke(ps, binding.args());
+                    } catch (ReflectiveOperationException e) {
+                        throw new SQLException("Could not replay " + binding.setter().getName(), e);
+                    }
+                }
+            }
+        }
+
+        List<Captured> during(Runnable action) {
+            captured.clear();
+            recording = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                recording = null;
+            }
+            return new ArrayList<>(captured);
+        }
+
+        @Bean
+        static BeanPostProcessor statementCapturePostProcessor(ObjectProvider<StatementCapture> capture) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                            Object result = method.invoke(target, args);
+                            return result instanceof Connection connection
+                                    ? capture.getObject().wrap(connection)
+                                    : result;
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement ps && "prepareStatement".equals(method.getName())
+                        && Thread.currentThread() == recording) {
+                    return record((String) args[0], ps);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement record(String sql, PreparedStatement statement) {
+            List<Binding> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new Binding(method, args));
+                } else if (method.getName().startsWith("execute")) {
+                    captured.add(new Captured(sql, List.copyOf(bindings)));
+                }
+                return method.invoke(target, args);
+            });
+        }
+
+        @FunctionalInterface
+        private interface Delegate<T> {
+            Object invoke(T target, Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Delegate<T> delegate) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                try {
+                    return delegate.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+        }
+    }
+}
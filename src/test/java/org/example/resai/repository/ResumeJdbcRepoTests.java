@@ -0,0 +1,88 @@
+package org.example.resai.repository;
+
+import org.example.resai.dto.ResumeSum;
+import org.example.resai.model.Resume;
+import org.example.resai.model.User;
+import org.example.resai.model.resume.ResumeDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ResumeJdbcRepoTests {
+
+    private static final ResumeDocument DATA = new ResumeDocument(null, "summary", null, null, null, List.of("Java", "SQL"), null);
+
+    @Autowired
+    private ResumeJdbcRepo resumeJdbcRepo;
+
+    @Autowired
+    private ResumeRepo resumeRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    private User user;
+    private Resume resume;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("duplicate-" + UUID.randomUUID() + "@test.local");
+        user.setAuthProvider("LOCAL");
+        user = userRepo.save(user);
+
+        resume = new Resume();
+        resume.setUser(user);
+        resume.setTitle("Base");
+        resume.setData(DATA);
+        resume.setLanguage("fr");
+        resume.setAiMetadata(Map.of("tailoredFor", "something"));
+        resume.setVersion(7);
+        resume = resumeRepo.save(resume);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resumeRepo.deleteAll(resumeRepo.findByUserId(user.getId()));
+        userRepo.delete(user);
+    }
+
+    @Test
+    void copiesDocumentAndResetsVersion() {
+        List<ResumeSum> copies = resumeJdbcRepo.duplicate(resume.getId(), user.getId(), 1);
+
+        assertEquals(1, copies.size());
+        assertEquals("Base (copy)", copies.get(0).getTitle());
+
+        Resume copy = resumeRepo.findByIdAndUserId(copies.get(0).getId(), user.getId()).orElseThrow();
+        assertEquals(DATA, copy.getData());
+        assertEquals("fr", copy.getLanguage());
+        assertEquals(1, copy.getVersion());
+        assertNull(copy.getAiMetadata());
+    }
+
+    @Test
+    void bulkCopiesAreNumberedInOrder() {
+        List<ResumeSum> copies = resumeJdbcRepo.duplicate(resume.getId(), user.getId(), 3);
+
+        assertEquals(List.of("Base (copy 1)", "Base (copy 2)", "Base (copy 3)"),
+                copies.stream().map(ResumeSum::getTitle).toList());
+    }
+
+    @Test
+    void otherUsersResumeIsNotCopied() {
+        assertTrue(resumeJdbcRepo.duplicate(resume.getId(), user.getId() + 1_000_000, 2).isEmpty());
+        assertEquals(1, resumeRepo.countByUserId(user.getId()));
+    }
+}
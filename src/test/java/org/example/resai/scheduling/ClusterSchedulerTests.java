@@ -0,0 +1,169 @@
+package org.example.resai.scheduling;
+
+import org.example.resai.model.User;
+import org.example.resai.repository.ScheduledTaskJdbcRepo;
+import org.example.resai.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives ClusterScheduler.runIfElected directly; the periodic tick is switched off
+ * so it can't run the tasks behind the test's back.
+ */
+@SpringBootTest(properties = "scheduler.enabled=false")
+class ClusterSchedulerTests {
+
+    private static final String TASK = "scheduler-test";
+
+    @Autowired
+    private ClusterScheduler scheduler;
+
+    @Autowired
+    private ScheduledTaskJdbcRepo scheduledTaskJdbcRepo;
+
+    @Autowired
+    private PremiumExpiryTask premiumExpiryTask;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+
+    // The real premium-expiry row as it was before a test rescheduled it
+    private List<Map<String, Object>> savedPremiumExpiry;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM scheduled_tasks WHERE name = ?", TASK);
+        if (savedPremiumExpiry != null) {
+            restore(premiumExpiryTask.name(), savedPremiumExpiry);
+        }
+        if (user != null) {
+            userRepo.delete(user);
+        }
+    }
+
+    @Test
+    void taskLockedByAnotherInstanceDoesNotRun() throws Exception {
+        CountingTask task = new CountingTask(CatchUpPolicy.RUN_ONCE);
+        dueIn(task, Duration.ZERO);
+
+        try (Connection otherInstance = dataSource.getConnection()) {
+            assertTrue(scheduledTaskJdbcRepo.tryLock(otherInstance, TASK));
+            assertFalse(scheduler.runIfElected(task));
+            assertEquals(0, task.runs.get());
+            scheduledTaskJdbcRepo.unlock(otherInstance, TASK);
+        }
+
+        assertTrue(scheduler.runIfElected(task));
+        assertEquals(1, task.runs.get());
+        assertFalse(scheduledTaskJdbcRepo.isDue(TASK));
+    }
+
+    @Test
+    void missedSlotsAreCaughtUpOnceOrSkipped() {
+        CountingTask runOnce = new CountingTask(CatchUpPolicy.RUN_ONCE);
+        dueIn(runOnce, runOnce.interval().multipliedBy(-3));
+        scheduler.runIfElected(runOnce);
+        assertEquals(1, runOnce.runs.get());
+        assertFalse(scheduledTaskJdbcRepo.isDue(TASK));
+
+        CountingTask skip = new CountingTask(CatchUpPolicy.SKIP);
+        dueIn(skip, skip.interval().multipliedBy(-3));
+        scheduler.runIfElected(skip);
+        assertEquals(0, skip.runs.get());
+        assertFalse(scheduledTaskJdbcRepo.isDue(TASK));
+    }
+
+    @Test
+    void expiredPremiumIsCleared() {
+        user = new User();
+        user.setEmail("scheduler-" + UUID.randomUUID() + "@test.local");
+        user.setAuthProvider("LOCAL");
+        // The task binds the JVM's clock, like User.isPremium(), so expire it by that clock
+        user.setPremiumUntil(LocalDateTime.now().minusMinutes(1));
+        user = userRepo.save(user);
+
+        savedPremiumExpiry = jdbcTemplate.queryForList("SELECT * FROM scheduled_tasks WHERE name = ?",
+                premiumExpiryTask.name());
+        dueIn(premiumExpiryTask, Duration.ZERO);
+        assertTrue(scheduler.runIfElected(premiumExpiryTask));
+
+        assertNull(userRepo.findById(Math.toIntExact(user.getId())).orElseThrow().getPremiumUntil());
+    }
+
+    private void dueIn(ClusterTask task, Duration offset) {
+        jdbcTemplate.update("DELETE FROM scheduled_tasks WHERE name = ?", task.name());
+        scheduledTaskJdbcRepo.register(task.name());
+        // Relative to the database clock, which is what the scheduler compares against
+        jdbcTemplate.update("UPDATE scheduled_tasks SET next_run_at = LOCALTIMESTAMP + make_interval(secs => ?) WHERE name = ?",
+                offset.toSeconds() - 1, task.name());
+    }
+
+    private void restore(String name, List<Map<String, Object>> rows) {
+        jdbcTemplate.update("DELETE FROM scheduled_tasks WHERE name = ?", name);
+        for (Map<String, Object> row : rows) {
+            jdbcTemplate.update("""
+                    INSERT INTO scheduled_tasks (name, next_run_at, last_started_at, last_finished_at,
+                                                 last_status, last_processed, last_error, last_node)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    """,
+                    row.get("name"), row.get("next_run_at"), row.get("last_started_at"), row.get("last_finished_at"),
+                    row.get("last_status"), row.get("last_processed"), row.get("last_error"), row.get("last_node"));
+        }
+    }
+
+    private static class CountingTask implements ClusterTask {
+
+        private final CatchUpPolicy catchUp;
+        private final AtomicInteger runs = new AtomicInteger();
+
+        CountingTask(CatchUpPolicy catchUp) {
+            this.catchUp = catchUp;
+        }
+
+        @Override
+        public String name() {
+            return TASK;
+        }
+
+        @Override
+        public Duration interval() {
+            return Duration.ofHours(1);
+        }
+
+        @Override
+        public CatchUpPolicy catchUp() {
+            return catchUp;
+        }
+
+        @Override
+        public int runChunk(int limit) {
+            runs.incrementAndGet();
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.resai.service;
+
+import org.example.resai.model.AccessCode;
+import org.example.resai.model.User;
+import org.example.resai.repository.AccessCodeRepo;
+import org.example.resai.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AccessCodeServiceConcurrencyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessCodeServiceConcurrencyTests.class);
+    private static final int THREADS = 64;
+
+    @Autowired
+    private AccessCodeService accessCodeService;
+
+    @Autowired
+    private AccessCodeRepo accessCodeRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<String> codes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        users.clear();
+        codes.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        accessCodeRepo.deleteAll(accessCodeRepo.findByCodeIn(codes));
+        userRepo.deleteAll(users);
+    }
+
+    @Test
+    void sameCodeIsRedeemedExactlyOnce() throws Exception {
+        User user = newUser();
+        String code = accessCodeService.generateCode(30, "concurrency-test").getCode();
+        codes.add(code);
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            attempts.add(() -> accessCodeService.activateCode(code, user.getId()));
+        }
+
+        long successes = runConcurrently(attempts).stream().filter(Boolean::booleanValue).count();
+        assertEquals(1, successes);
+
+        AccessCode redeemed = accessCodeRepo.findByCode(code).orElseThrow();
+        assertTrue(redeemed.getIsUsed());
+
+        // Premium must be extended by one code's duration, not THREADS of them
+        LocalDateTime premiumUntil = userRepo.findById(Math.toIntExact(user.getId())).orElseThrow().getPremiumUntil();
+        assertTrue(premiumUntil.isBefore(LocalDateTime.now().plusDays(31)));
+        assertTrue(premiumUntil.isAfter(LocalDateTime.now().plusDays(29)));
+    }
+
+    @Test
+    void redemptionStormThroughput() throws Exception {
+        int codeCount = 2_000;
+        List<User> redeemers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            redeemers.add(newUser());
+        }
+        accessCodeService.generateCodesInBatches(codeCount, 7, "throughput-test", codes::addAll);
+
+        // Every code is raced by two different users
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < codes.size(); i++) {
+            String code = codes.get(i);
+            Long first = redeemers.get(i % THREADS).getId();
+            Long second = redeemers.get((i + 1) % THREADS).getId();
+            attempts.add(() -> accessCodeService.activateCode(code, first));
+            attempts.add(() -> accessCodeService.activateCode(code, second));
+        }
+
+        long start = System.nanoTime();
+        long successes = runConcurrently(attempts).stream().filter(Boolean::booleanValue).count();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Redeemed {} codes from {} attempts with {} threads in {} s ({} attempts/s)",
+                successes, attempts.size(), THREADS, String.format("%.2f", seconds),
+                Math.round(attempts.size() / seconds));
+
+        assertEquals(codeCount, successes);
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setEmail("redeem-" + UUID.randomUUID() + "@test.local");
+        user.setAuthProvider("LOCAL");
+        User saved = userRepo.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    startGate.await();
+                    return task.call();
+                }));
+            }
+            startGate.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
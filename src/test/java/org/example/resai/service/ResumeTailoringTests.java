@@ -0,0 +1,196 @@
+package org.example.resai.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.example.resai.dto.ResumeReq;
+import org.example.resai.model.Resume;
+import org.example.resai.model.User;
+import org.example.resai.model.resume.ResumeDocument;
+import org.example.resai.repository.DailyTailoringJdbcRepo;
+import org.example.resai.repository.ResumeRepo;
+import org.example.resai.repository.UserRepo;
+import org.example.resai.security.JwtUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ResumeTailoringTests {
+
+    private static final String JOB = "{\"jobDescription\": \"Senior Java developer\"}";
+    private static final ResumeDocument ORIGINAL = new ResumeDocument(null, "original", null, null, null, List.of("Java"), null);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResumeService resumeService;
+
+    @Autowired
+    private ResumeRepo resumeRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private DailyTailoringJdbcRepo dailyTailoringJdbcRepo;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private AiService aiService;
+
+    private User user;
+    private Resume resume;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("tailor-" + UUID.randomUUID() + "@test.local");
+        user.setAuthProvider("LOCAL");
+        user = userRepo.save(user);
+
+        resume = new Resume();
+        resume.setUser(user);
+        resume.setTitle("Tailoring test");
+        resume.setData(ORIGINAL);
+        resume = resumeRepo.save(resume);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        resumeRepo.deleteById(resume.getId());
+        userRepo.delete(user);
+    }
+
+    @Test
+    void noConnectionIsHeldDuringProviderCall() throws Exception {
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        AtomicBoolean threadBoundResources = new AtomicBoolean(true);
+        AtomicBoolean poolDrained = new AtomicBoolean(false);
+
+        when(aiService.tailorResume(any(), anyString(), anyString())).thenAnswer(invocation -> {
+            // Nothing (EntityManager, connection, transaction) may be bound to the request thread...
+            threadBoundResources.set(!TransactionSynchronizationManager.getResourceMap().isEmpty()
+                    || TransactionSynchronizationManager.isActualTransactionActive());
+            // ...and the pool must be able to drain to zero while the "provider" is still working
+            // (background jobs may briefly borrow a connection, so wait for them rather than sample once)
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (System.currentTimeMillis() < deadline && !poolDrained.get()) {
+                poolDrained.set(pool.getActiveConnections() == 0);
+                Thread.sleep(10);
+            }
+            return ORIGINAL.withSummary("tailored");
+        });
+
+        long tailoredToday = tailoredToday();
+
+        mockMvc.perform(post("/api/resumes/{id}/tailor", resume.getId())
+                        .header("Authorization", "Bearer " + jwtUtils.generateToken(user.getEmail()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JOB))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resume.data.summary").value("tailored"));
+
+        assertFalse(threadBoundResources.get(), "request thread still had JPA/JDBC resources bound during the AI call");
+        assertTrue(poolDrained.get(), "a pooled connection stayed checked out for the whole AI call");
+
+        Resume saved = resumeRepo.findById(resume.getId()).orElseThrow();
+        assertEquals("tailored", saved.getData().summary());
+        assertEquals(resume.getVersion() + 1, saved.getVersion());
+        assertEquals(tailoredToday + 1, tailoredToday());
+    }
+
+    @Test
+    void editDuringTailoringIsNotOverwritten() throws Exception {
+        AtomicReference<Resume> edited = new AtomicReference<>();
+        when(aiService.tailorResume(any(), anyString(), anyString())).thenAnswer(invocation -> {
+            // The user keeps editing while the provider is working
+            ResumeReq edit = new ResumeReq();
+            edit.setData(ORIGINAL.withSummary("edited by user"));
+            edited.set(resumeService.updateResume(resume.getId(), user.getId(), edit));
+            return ORIGINAL.withSummary("tailored");
+        });
+        long tailoredToday = tailoredToday();
+
+        mockMvc.perform(post("/api/resumes/{id}/tailor", resume.getId())
+                        .header("Authorization", "Bearer " + jwtUtils.generateToken(user.getEmail()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(JOB))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.tailoredData.summary").value("tailored"))
+                .andExpect(jsonPath("$.currentVersion").value(edited.get().getVersion()));
+
+        Resume saved = resumeRepo.findById(resume.getId()).orElseThrow();
+        assertEquals("edited by user", saved.getData().summary());
+        assertEquals(edited.get().getVersion(), saved.getVersion());
+        // Rolled back with the rejected tailoring
+        assertEquals(tailoredToday, tailoredToday());
+    }
+
+    @Test
+    void retryWithSameIdempotencyKeyIsReplayed() throws Exception {
+        when(aiService.tailorResume(any(), anyString(), anyString())).thenReturn(ORIGINAL.withSummary("tailored"));
+        String token = "Bearer " + jwtUtils.generateToken(user.getEmail());
+        String key = UUID.randomUUID().toString();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/resumes/{id}/tailor", resume.getId())
+                            .header("Authorization", token)
+                            .header("Idempotency-Key", key)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(JOB))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.resume.data.summary").value("tailored"));
+        }
+
+        // Same key, different job description
+        mockMvc.perform(post("/api/resumes/{id}/tailor", resume.getId())
+                        .header("Authorization", token)
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"jobDescription\": \"Staff Go developer\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(aiService, times(1)).tailorResume(any(), anyString(), anyString());
+        assertEquals(resume.getVersion() + 1, resumeRepo.findById(resume.getId()).orElseThrow().getVersion());
+    }
+
+    private long tailoredToday() {
+        LocalDate today = LocalDate.now();
+        return dailyTailoringJdbcRepo.countPerDaySince(today).getOrDefault(today, 0L);
+    }
+}
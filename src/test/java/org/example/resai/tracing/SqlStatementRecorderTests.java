@@ -0,0 +1,74 @@
+package org.example.resai.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "sql.slow-query.threshold-ms=0")
+class SqlStatementRecorderTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statementRepeatedWithinOneRequestIsReported() {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            for (long id = 1; id <= 6; id++) {
+                jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Long.class, id);
+            }
+            jdbcTemplate.queryForObject("SELECT count(*) FROM resumes", Long.class);
+        } finally {
+            RequestTimings.clear();
+        }
+
+        sqlStatementRecorder.reportRepeats("GET /test/n-plus-one", timings);
+
+        assertEquals(1.0, meterRegistry.get("db.query.repeated")
+                .tag("endpoint", "GET /test/n-plus-one")
+                .counter().count());
+        assertNull(meterRegistry.find("db.query.repeated")
+                .tag("endpoint", "GET /test/n-plus-one")
+                .tag("query", fingerprintOf("SELECT count(*) FROM resumes"))
+                .counter());
+    }
+
+    @Test
+    void inListsOfDifferentSizesShareOneTimer() {
+        String query = fingerprintOf("SELECT count(*) FROM users WHERE id IN (?)");
+        Timer timer = meterRegistry.find("db.query").tag("query", query).timer();
+        long before = timer == null ? 0 : timer.count();
+
+        jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id IN (?, ?)", Long.class, 1L, 2L);
+        jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id IN (?,?,?)", Long.class, 1L, 2L, 3L);
+
+        assertEquals(before + 2, meterRegistry.get("db.query")
+                .tag("query", query)
+                .tag("operation", "select")
+                .timer().count());
+    }
+
+    @Test
+    void onlyNonIdentifyingBindValuesAreLogged() {
+        assertEquals("[42, NULL, true, <string:13>, <bytes:3>]",
+                SqlStatementRecorder.redact(Arrays.asList(42L, null, true, "secret@x.com!", new byte[3])));
+    }
+
+    private static String fingerprintOf(String normalizedSql) {
+        return "q" + Integer.toHexString(normalizedSql.hashCode());
+    }
+}